@@ -0,0 +1,64 @@
+package com.phrontend.springfm.auth;
+
+import com.phrontend.springfm.config.JwtProperties;
+import com.phrontend.springfm.user.UserEntity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Per-request token checks: a full signature verification against a claims cache hit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-0123456789";
+
+    private JwtService jwtService;
+    private JwtClaimsCache jwtClaimsCache;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtProperties properties = new JwtProperties(SECRET, "springfm", Duration.ofMinutes(15), Duration.ofDays(30));
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        jwtService = new JwtService(key, Jwts.parser().verifyWith(key).requireIssuer(properties.issuer()).build(), properties);
+        jwtClaimsCache = new JwtClaimsCache(jwtService, properties, new SimpleMeterRegistry());
+
+        UserEntity user = UserEntity.builder()
+                .id(42L)
+                .displayName("Ada Lovelace")
+                .email("ada.lovelace@example.com")
+                .passwordHash("unused")
+                .canUpload(true)
+                .build();
+        token = jwtService.generateToken(user, properties.accessTokenTtl());
+        jwtClaimsCache.verify(token);
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public Optional<Claims> cachedVerify() {
+        return jwtClaimsCache.verify(token);
+    }
+}
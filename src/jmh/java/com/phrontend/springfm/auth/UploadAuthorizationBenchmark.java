@@ -0,0 +1,87 @@
+package com.phrontend.springfm.auth;
+
+import com.phrontend.springfm.SpringFmApplication;
+import com.phrontend.springfm.user.PermissionVersionCache;
+import com.phrontend.springfm.user.UserEntity;
+import com.phrontend.springfm.user.UserRepository;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * The upload authorization check in DATABASE versus CLAIMS mode, against the application wired to
+ * a real MariaDB. Run it on its own:
+ * {@code ./gradlew jmh -PjmhInclude=UploadAuthorization -Dbenchmark.jdbc.url=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UploadAuthorizationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserEntity user;
+    private UsernamePasswordAuthenticationToken authentication;
+    private UploadAuthorization database;
+    private UploadAuthorization claims;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = SpringApplication.run(SpringFmApplication.class,
+                "--server.port=0",
+                "--management.server.port=0",
+                "--spring.datasource.url=" + System.getProperty("benchmark.jdbc.url", "jdbc:mariadb://localhost:3306/sfk"),
+                "--spring.datasource.username=" + System.getProperty("benchmark.jdbc.user", "sfk"),
+                "--spring.datasource.password=" + System.getProperty("benchmark.jdbc.password", "sfk"),
+                "--sfk.jwt.secret=benchmark-secret-benchmark-secret-benchmark-secret-0123456789",
+                "--app.cors.allowed-origins=http://localhost",
+                "--app.storage.root=" + Files.createTempDirectory("springfm-jmh-storage"),
+                "--app.storage.scrub.enabled=false",
+                "--logging.level.root=WARN");
+
+        user = context.getBean(UserRepository.class).save(UserEntity.builder()
+                .email("bench-" + UUID.randomUUID() + "@example.com")
+                .displayName("Benchmark")
+                .passwordHash("not-a-real-hash")
+                .canUpload(true)
+                .build());
+        authentication = new UsernamePasswordAuthenticationToken(
+                user.getId().toString(), null, List.of(new SimpleGrantedAuthority("UPLOAD")));
+        authentication.setDetails(new JwtAuthenticationDetails(new MockHttpServletRequest(), user.getPermissionVersion()));
+
+        AuthService authService = context.getBean(AuthService.class);
+        PermissionVersionCache permissionVersionCache = context.getBean(PermissionVersionCache.class);
+        database = new UploadAuthorization(UploadAuthorization.Mode.DATABASE, authService, permissionVersionCache);
+        claims = new UploadAuthorization(UploadAuthorization.Mode.CLAIMS, authService, permissionVersionCache);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(UserRepository.class).delete(user);
+        context.close();
+    }
+
+    @Benchmark
+    public boolean databaseMode() {
+        return database.canUpload(authentication);
+    }
+
+    @Benchmark
+    public boolean claimsMode() {
+        return claims.canUpload(authentication);
+    }
+}
@@ -0,0 +1,72 @@
+package com.phrontend.springfm.files;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Inputs shaped like production traffic: the upload mix is skewed towards office documents and images,
+ * a fair share of files arrive as application/octet-stream so detection falls through to the filename,
+ * and search queries are the short, partly misspelled terms users actually type.
+ */
+final class BenchmarkCorpus {
+
+    record Upload(String filename, String contentType, long size) {
+    }
+
+    static final List<Upload> UPLOADS = List.of(
+            new Upload("Quarterly_Report_Q3-2024.pdf", "application/pdf", 2_483_112),
+            new Upload("budget-2025-final.xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet", 184_320),
+            new Upload("Meeting Notes 2024-11-04.docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document", 38_912),
+            new Upload("IMG_20240817_143022.jpg", "image/jpeg", 4_194_304),
+            new Upload("screenshot 2024-09-12 at 10.41.07.png", "image/png", 812_544),
+            new Upload("holiday_video_final_v2.mp4", "video/mp4", 734_003_200),
+            new Upload("podcast-episode-42.mp3", "audio/mpeg", 58_720_256),
+            new Upload("project-backup.zip", "application/zip", 157_286_400),
+            new Upload("logs-2024-10.tar.gz", "application/gzip", 22_020_096),
+            new Upload("FileService.java", "application/octet-stream", 7_340),
+            new Upload("index.ts", "application/octet-stream", 2_150),
+            new Upload("train_model.py", "text/x-python", 11_264),
+            new Upload("main.rs", "application/octet-stream", 4_608),
+            new Upload("Onboarding Presentation.pptx", "application/vnd.openxmlformats-officedocument.presentationml.presentation", 9_437_184),
+            new Upload("README", "text/plain", 1_024),
+            new Upload("notes.txt", "text/plain", 640),
+            new Upload("installer.exe", "application/x-msdownload", 98_566_144),
+            new Upload("data_export.csv", "text/csv", 3_145_728),
+            new Upload("unnamed-file", null, 512),
+            new Upload("contract_signed_scan.pdf", "application/pdf", 1_572_864)
+    );
+
+    static final List<String> QUERIES = List.of(
+            "report",
+            "quarterly report 2024",
+            "img",
+            "budgt",
+            "meeting notes",
+            "a",
+            "holiday video final",
+            "contract-signed",
+            "Q3",
+            "backup zip"
+    );
+
+    private BenchmarkCorpus() {
+    }
+
+    static StoredFile storedFile(Upload upload, int sequence) {
+        FileCategory category = FileService.detectCategory(upload.contentType(), upload.filename());
+        return StoredFile.builder()
+                .id(UUID.randomUUID())
+                .title(upload.filename())
+                .filename(upload.filename())
+                .category(category)
+                .uploadedAt(Instant.parse("2024-01-01T00:00:00Z").plusSeconds(sequence * 3_600L))
+                .uploadedBy(String.valueOf(1 + sequence % 7))
+                .fileSize(upload.size())
+                .metadataText(FileService.generateMetadata(upload.filename(), upload.contentType(), upload.size(), category))
+                .contentType(upload.contentType())
+                .storagePath("ab/cd/" + UUID.randomUUID() + "-" + upload.filename())
+                .sha256("9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08")
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.phrontend.springfm.files;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Mapping a page of search hits to {@link FileResult}s and writing the response body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileResultBenchmark {
+
+    /** The default search page and the largest listing page. */
+    @Param({"20", "200"})
+    int pageSize;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private List<StoredFile> page;
+    private List<FileResult> results;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            page.add(BenchmarkCorpus.storedFile(BenchmarkCorpus.UPLOADS.get(i % BenchmarkCorpus.UPLOADS.size()), i));
+        }
+        results = toResults();
+    }
+
+    @Benchmark
+    public List<FileResult> fromEntity() {
+        return toResults();
+    }
+
+    @Benchmark
+    public String serialize() {
+        return jsonMapper.writeValueAsString(new SearchResponse(results, 1_000, 0, pageSize));
+    }
+
+    @Benchmark
+    public String fromEntityAndSerialize() {
+        return jsonMapper.writeValueAsString(new SearchResponse(toResults(), 1_000, 0, pageSize));
+    }
+
+    private List<FileResult> toResults() {
+        List<FileResult> mapped = new ArrayList<>(page.size());
+        for (StoredFile file : page) {
+            mapped.add(FileResult.fromEntity(file, "Display Name " + file.getUploadedBy()));
+        }
+        return mapped;
+    }
+}
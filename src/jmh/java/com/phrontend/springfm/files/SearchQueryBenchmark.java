@@ -0,0 +1,118 @@
+package com.phrontend.springfm.files;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.cfg.Configuration;
+import org.hibernate.dialect.MariaDBDialect;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.query.Query;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Turning a search request into a Hibernate query, up to but excluding the database round trip.
+ * Hibernate boots against the MariaDB dialect without a connection, so no database is needed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SearchQueryBenchmark {
+
+    private static final List<String> QUERIES = BenchmarkCorpus.QUERIES;
+    private static final List<FileCategory> CATEGORIES = List.of(FileCategory.DOCUMENT, FileCategory.IMAGE);
+
+    private SessionFactory sessionFactory;
+    private Session session;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Configuration configuration = new Configuration()
+                .addAnnotatedClass(StoredFile.class)
+                .setProperty(AvailableSettings.DIALECT, MariaDBDialect.class.getName())
+                .setProperty(AvailableSettings.ALLOW_METADATA_ON_BOOT, "false");
+        configuration.getProperties().put(AvailableSettings.CONNECTION_PROVIDER, new NoConnectionProvider());
+        sessionFactory = configuration.buildSessionFactory();
+        session = sessionFactory.openSession();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        session.close();
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public String toBooleanQuery() {
+        return StoredFileSpecifications.toBooleanQuery(nextQuery());
+    }
+
+    @Benchmark
+    public Query<StoredFile> likeQuery() {
+        return createQuery(StoredFileSpecifications.matchesQuery(nextQuery()));
+    }
+
+    @Benchmark
+    public Query<StoredFile> fullTextQuery() {
+        return createQuery(StoredFileSpecifications.matchesFullText(nextQuery()));
+    }
+
+    private Query<StoredFile> createQuery(Specification<StoredFile> matches) {
+        Specification<StoredFile> specification = Specification.where(matches)
+                .and(StoredFileSpecifications.categoryIn(CATEGORIES));
+
+        CriteriaBuilder criteriaBuilder = session.getCriteriaBuilder();
+        CriteriaQuery<StoredFile> criteriaQuery = criteriaBuilder.createQuery(StoredFile.class);
+        Root<StoredFile> root = criteriaQuery.from(StoredFile.class);
+        criteriaQuery.where(specification.toPredicate(root, criteriaQuery, criteriaBuilder));
+        criteriaQuery.orderBy(criteriaBuilder.desc(root.get("uploadedAt")));
+        return session.createQuery(criteriaQuery);
+    }
+
+    private String nextQuery() {
+        return QUERIES.get(next++ % QUERIES.size());
+    }
+
+    /** Fails loudly if anything in the measured path tries to reach the database. */
+    private static final class NoConnectionProvider implements ConnectionProvider {
+
+        @Override
+        public Connection getConnection() {
+            throw new UnsupportedOperationException("Benchmarks run without a database");
+        }
+
+        @Override
+        public void closeConnection(Connection connection) {
+        }
+
+        @Override
+        public boolean supportsAggressiveRelease() {
+            return false;
+        }
+
+        @Override
+        public boolean isUnwrappableAs(Class<?> unwrapType) {
+            return false;
+        }
+
+        @Override
+        public <T> T unwrap(Class<T> unwrapType) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.phrontend.springfm.files;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.hibernate.id.uuid.UuidVersion7Strategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Insert throughput into a stored_files-shaped InnoDB table that already holds {@code rows} rows,
+ * keyed by random UUIDv4 ids versus the time-ordered UUIDv7 ids {@link StoredFile} gets from
+ * Hibernate. Needs a MariaDB instance, so run it on its own:
+ * {@code ./gradlew jmh -PjmhInclude=StoredFileIdInsert -Dbenchmark.jdbc.url=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StoredFileIdInsertBenchmark {
+
+    private static final String URL = System.getProperty("benchmark.jdbc.url", "jdbc:mariadb://localhost:3306/sfk");
+    private static final String USER = System.getProperty("benchmark.jdbc.user", "sfk");
+    private static final String PASSWORD = System.getProperty("benchmark.jdbc.password", "sfk");
+    private static final String TABLE = "bench_stored_file_ids";
+    private static final int BATCH_SIZE = 1_000;
+
+    public enum Ids {
+        RANDOM(UUID::randomUUID),
+        // The generator behind @UuidGenerator(style = VERSION_7) on StoredFile.id
+        VERSION_7(() -> UuidVersion7Strategy.INSTANCE.generateUuid(null));
+
+        private final Supplier<UUID> generator;
+
+        Ids(Supplier<UUID> generator) {
+            this.generator = generator;
+        }
+    }
+
+    @Param({"RANDOM", "VERSION_7"})
+    Ids ids;
+
+    /** Rows in the table before measuring; the gap between the two widens once the index outgrows the buffer pool. */
+    @Param({"1000000", "10000000"})
+    long rows;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private long next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("""
+                    CREATE TABLE %s (
+                        id BINARY(16) NOT NULL PRIMARY KEY,
+                        title VARCHAR(255) NOT NULL,
+                        filename VARCHAR(255) NOT NULL,
+                        category VARCHAR(16) NOT NULL,
+                        uploaded_at DATETIME(6) NOT NULL,
+                        uploaded_by VARCHAR(255) NOT NULL,
+                        file_size BIGINT NOT NULL,
+                        storage_path VARCHAR(255) NOT NULL,
+                        KEY idx_uploaded_by (uploaded_by, uploaded_at, id)
+                    ) ENGINE=InnoDB
+                    """.formatted(TABLE));
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO " + TABLE
+                + " (id, title, filename, category, uploaded_at, uploaded_by, file_size, storage_path)"
+                + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        while (next < rows) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        insert.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long row = ++next;
+            UUID id = ids.generator.get();
+            insert.setBytes(1, toBytes(id));
+            insert.setString(2, "Quarterly report " + row);
+            insert.setString(3, "report-" + row + ".pdf");
+            insert.setString(4, "DOCUMENT");
+            insert.setTimestamp(5, Timestamp.from(Instant.now()));
+            insert.setString(6, Long.toString(row % 500));
+            insert.setLong(7, row);
+            insert.setString(8, id + "-report-" + row + ".pdf");
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
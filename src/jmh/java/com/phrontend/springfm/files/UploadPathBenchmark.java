@@ -0,0 +1,68 @@
+package com.phrontend.springfm.files;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The CPU work {@link FileService#upload} does per file besides I/O: hashing the content, detecting
+ * the category and deriving search metadata.
+ */
+@State(Scope.Benchmark)
+public class UploadPathBenchmark {
+
+    private static final List<BenchmarkCorpus.Upload> UPLOADS = BenchmarkCorpus.UPLOADS;
+
+    private int next;
+
+    @State(Scope.Benchmark)
+    public static class Content {
+
+        /** A small document, the pack-store cut-off and a typical photo. */
+        @Param({"4096", "65536", "4194304"})
+        int size;
+
+        byte[] bytes;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            bytes = new byte[size];
+            new SplittableRandom(42).nextBytes(bytes);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public String calculateSha256(Content content) {
+        return FileService.calculateSha256(content.bytes);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void detectCategory(Blackhole blackhole) {
+        for (BenchmarkCorpus.Upload upload : UPLOADS) {
+            blackhole.consume(FileService.detectCategory(upload.contentType(), upload.filename()));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String generateMetadata() {
+        BenchmarkCorpus.Upload upload = UPLOADS.get(next++ % UPLOADS.size());
+        return FileService.generateMetadata(upload.filename(), upload.contentType(), upload.size(),
+                FileCategory.DOCUMENT);
+    }
+}
@@ -0,0 +1,131 @@
+package com.phrontend.springfm.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Training run for the JDK AOT cache: starts the extracted, Spring-AOT-processed application with
+ * {@code -XX:AOTCacheOutput}, drives register, login, upload, search, suggest and download over HTTP
+ * so the classes and method profiles of those paths end up in the cache, and shuts it down
+ * gracefully, which is when the JVM writes the cache.
+ *
+ * <p>Arguments: the application jar and the cache file to write. Run through {@code ./gradlew aotCache}.
+ */
+public final class AotTraining {
+
+    private static final String EMAIL = "aot-training@example.com";
+    private static final String PASSWORD = "aot-training-password";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+    private final URI baseUri;
+
+    private AotTraining(URI baseUri) {
+        this.baseUri = baseUri;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args[0]);
+        Path cache = Path.of(args[1]);
+        int iterations = Integer.getInteger("loadtest.training.iterations", 200);
+        Files.deleteIfExists(cache);
+
+        try (EmbeddedDatabase database = EmbeddedDatabase.start()) {
+            Path storageRoot = Files.createTempDirectory("springfm-aot-training");
+            Path log = cache.resolveSibling("training.log");
+            AppProcess app = AppProcess.launch(jar,
+                    List.of("-XX:AOTCacheOutput=" + cache, "-Dspring.aot.enabled=true"),
+                    database, storageRoot, log);
+            try (app) {
+                AotTraining training = new AotTraining(app.baseUri());
+                System.out.printf("Application up after %d ms%n",
+                        app.awaitFirstResponse(training.client, "/readyz").toMillis());
+                training.run(database, iterations);
+            }
+            System.out.printf("Training done, log at %s%n", log);
+        }
+
+        if (!Files.exists(cache)) {
+            throw new IllegalStateException("The JVM did not write " + cache + "; see training.log");
+        }
+        System.out.printf("Wrote %s (%d MB)%n", cache, Files.size(cache) / (1024 * 1024));
+    }
+
+    private void run(EmbeddedDatabase database, int iterations) throws Exception {
+        post("/api/auth/register", "application/json", HttpRequest.BodyPublishers.ofString(
+                "{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\",\"displayName\":\"AOT Training\"}"), null);
+        grantUpload(database);
+        String token = login();
+
+        Dataset dataset = new Dataset(7);
+        Random random = new Random(7);
+        List<String> fileIds = new ArrayList<>();
+        for (int i = 0; i < iterations; i++) {
+            if (i % 10 == 0) {
+                JsonNode uploaded = post("/api/files/upload", Multipart.CONTENT_TYPE,
+                        Multipart.file(dataset.nextFile(i)), token);
+                fileIds.add(uploaded.get("id").asString());
+            }
+            String word = dataset.word();
+            get("/api/search?q=" + word + "&page=0&size=20", null);
+            get("/api/search?q=" + word + "&categories=DOCUMENT,IMAGE&sortField=uploadedAt&sortDir=desc", null);
+            get("/api/search/suggest?q=" + word.substring(0, 3), null);
+            get("/api/files/" + fileIds.get(random.nextInt(fileIds.size())) + "/download", null);
+            if (i % 20 == 0) {
+                get("/api/files/mine?size=20", token);
+                get("/api/auth/me", token);
+                login();
+            }
+        }
+    }
+
+    private String login() throws Exception {
+        JsonNode response = post("/api/auth/login", "application/json", HttpRequest.BodyPublishers.ofString(
+                "{\"email\":\"" + EMAIL + "\",\"password\":\"" + PASSWORD + "\",\"remember\":false}"), null);
+        return response.get("token").asString();
+    }
+
+    /** New accounts cannot upload; the training user is promoted directly in the database. */
+    private static void grantUpload(EmbeddedDatabase database) throws Exception {
+        try (Connection connection = DriverManager.getConnection(database.url(), "root", "");
+             PreparedStatement statement = connection.prepareStatement("UPDATE users SET can_upload = 1 WHERE email = ?")) {
+            statement.setString(1, EMAIL);
+            statement.executeUpdate();
+        }
+    }
+
+    private JsonNode post(String path, String contentType, HttpRequest.BodyPublisher body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", contentType)
+                .POST(body);
+        return send(request, token);
+    }
+
+    private void get(String path, String token) throws Exception {
+        send(HttpRequest.newBuilder(baseUri.resolve(path)).GET(), token);
+    }
+
+    private JsonNode send(HttpRequest.Builder request, String token) throws Exception {
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(response.request().uri() + " returned " + response.statusCode());
+        }
+        boolean json = response.headers().firstValue("Content-Type").orElse("").startsWith("application/json");
+        return json ? jsonMapper.readTree(response.body()) : null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.phrontend.springfm.load;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The packaged application in its own JVM, for measurements that must include JVM and context
+ * startup. Uses the JDK given by {@code springfm.java} (the build's toolchain), falling back to the
+ * one running this class.
+ */
+final class AppProcess implements AutoCloseable {
+
+    static final String JWT_SECRET = "load-test-secret-load-test-secret-load-test-secret-0123456789";
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(3);
+
+    private final Process process;
+    private final long launchedAt;
+    private final URI baseUri;
+
+    private AppProcess(Process process, long launchedAt, URI baseUri) {
+        this.process = process;
+        this.launchedAt = launchedAt;
+        this.baseUri = baseUri;
+    }
+
+    /**
+     * Starts {@code java <jvmOptions> -jar <jar>} on a free port against {@code database}.
+     */
+    static AppProcess launch(Path jar, List<String> jvmOptions, EmbeddedDatabase database, Path storageRoot,
+                             Path log) throws IOException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("springfm.java", Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.addAll(jvmOptions);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.addAll(database.applicationArguments());
+        command.addAll(List.of(
+                "--server.port=" + port,
+                "--management.server.port=" + freePort(),
+                "--sfk.jwt.secret=" + JWT_SECRET,
+                "--app.cors.allowed-origins=http://localhost",
+                "--app.rate-limit.enabled=false",
+                "--app.storage.root=" + storageRoot,
+                "--logging.level.com.phrontend.springfm=WARN"));
+
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new AppProcess(process, launchedAt, URI.create("http://localhost:" + port));
+    }
+
+    URI baseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Polls {@code path} until it answers 200 and returns the time since launch: the time to the first
+     * served request.
+     */
+    Duration awaitFirstResponse(HttpClient client, String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(path)).timeout(Duration.ofSeconds(5)).GET().build();
+        long deadline = launchedAt + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited during startup with code " + process.exitValue());
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return Duration.ofNanos(System.nanoTime() - launchedAt);
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(5);
+        }
+        throw new IllegalStateException("Application did not serve " + path + " within " + STARTUP_TIMEOUT);
+    }
+
+    /**
+     * Stops the application gracefully, so shutdown work such as writing an AOT cache completes.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(5, TimeUnit.MINUTES)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
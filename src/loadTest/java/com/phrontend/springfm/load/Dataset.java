@@ -0,0 +1,63 @@
+package com.phrontend.springfm.load;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic file names, content types, sizes and search terms. Sizes follow the production shape:
+ * most files are small documents, a tail is in the megabytes.
+ */
+final class Dataset {
+
+    static final List<String> WORDS = List.of(
+            "report", "invoice", "budget", "meeting", "notes", "holiday", "photo", "contract", "backup",
+            "presentation", "quarterly", "annual", "draft", "final", "summary", "design", "roadmap",
+            "release", "screenshot", "recording", "podcast", "training", "onboarding", "policy", "export");
+
+    private record Type(String extension, String contentType) {
+    }
+
+    private static final List<Type> TYPES = List.of(
+            new Type("pdf", "application/pdf"),
+            new Type("docx", "application/vnd.openxmlformats-officedocument.wordprocessingml.document"),
+            new Type("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+            new Type("jpg", "image/jpeg"),
+            new Type("png", "image/png"),
+            new Type("mp3", "audio/mpeg"),
+            new Type("zip", "application/zip"),
+            new Type("java", "application/octet-stream"),
+            new Type("txt", "text/plain"));
+
+    record SeedFile(String filename, String contentType, byte[] content) {
+    }
+
+    private final Random random;
+
+    Dataset(long seed) {
+        this.random = new Random(seed);
+    }
+
+    SeedFile nextFile(int sequence) {
+        Type type = TYPES.get(random.nextInt(TYPES.size()));
+        String filename = word() + "_" + word() + "-" + sequence + "." + type.extension();
+        byte[] content = new byte[nextSize()];
+        random.nextBytes(content);
+        return new SeedFile(filename, type.contentType(), content);
+    }
+
+    String word() {
+        return WORDS.get(random.nextInt(WORDS.size()));
+    }
+
+    /** 80% up to 64KB, 18% up to 1MB, 2% up to 8MB. */
+    private int nextSize() {
+        int bucket = random.nextInt(100);
+        if (bucket < 80) {
+            return 1_024 + random.nextInt(63 * 1_024);
+        }
+        if (bucket < 98) {
+            return 64 * 1_024 + random.nextInt(960 * 1_024);
+        }
+        return 1_024 * 1_024 + random.nextInt(7 * 1_024 * 1_024);
+    }
+}
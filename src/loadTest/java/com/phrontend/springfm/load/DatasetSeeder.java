@@ -0,0 +1,67 @@
+package com.phrontend.springfm.load;
+
+import com.phrontend.springfm.auth.JwtService;
+import com.phrontend.springfm.files.FileService;
+import com.phrontend.springfm.user.UserEntity;
+import com.phrontend.springfm.user.UserRepository;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.context.ApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Seeds users and files through the application's own services, so stored blobs, hashes, metadata and
+ * rows look exactly like those written by real uploads.
+ */
+final class DatasetSeeder {
+
+    record Seeded(List<String> tokens, List<UUID> fileIds) {
+    }
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final FileService fileService;
+
+    DatasetSeeder(ApplicationContext context) {
+        this.userRepository = context.getBean(UserRepository.class);
+        this.passwordEncoder = context.getBean(PasswordEncoder.class);
+        this.jwtService = context.getBean(JwtService.class);
+        this.fileService = context.getBean(FileService.class);
+    }
+
+    Seeded seed(LoadSettings settings, Dataset dataset) throws IOException {
+        // One hash for everyone: seeding should not be dominated by BCrypt
+        String passwordHash = passwordEncoder.encode("load-test-password");
+
+        List<UserEntity> users = new ArrayList<>(settings.users());
+        List<String> tokens = new ArrayList<>(settings.users());
+        for (int i = 0; i < settings.users(); i++) {
+            UserEntity user = userRepository.save(UserEntity.builder()
+                    .email("load-" + i + "@example.com")
+                    .displayName("Load User " + i)
+                    .passwordHash(passwordHash)
+                    .canUpload(true)
+                    .build());
+            users.add(user);
+            tokens.add(jwtService.generateToken(user, settings.warmup().plus(settings.duration()).plus(Duration.ofHours(1))));
+        }
+
+        List<UUID> fileIds = new ArrayList<>(settings.files());
+        for (int i = 0; i < settings.files(); i++) {
+            Dataset.SeedFile file = dataset.nextFile(i);
+            String uploadedBy = users.get(i % users.size()).getId().toString();
+            fileIds.add(fileService.upload(
+                    new MockMultipartFile("file", file.filename(), file.contentType(), file.content()),
+                    null, null, null, uploadedBy).getId());
+            if ((i + 1) % 1_000 == 0) {
+                System.out.printf("Seeded %d/%d files%n", i + 1, settings.files());
+            }
+        }
+        return new Seeded(tokens, fileIds);
+    }
+}
@@ -0,0 +1,49 @@
+package com.phrontend.springfm.load;
+
+import ch.vorburger.exec.ManagedProcessException;
+import ch.vorburger.mariadb4j.DB;
+import ch.vorburger.mariadb4j.DBConfiguration;
+import ch.vorburger.mariadb4j.DBConfigurationBuilder;
+import java.util.List;
+
+/**
+ * A throwaway MariaDB on a random port with one empty database, so the real Flyway migrations
+ * (FULLTEXT index, triggers) apply exactly as in production.
+ */
+final class EmbeddedDatabase implements AutoCloseable {
+
+    static final String NAME = "sfk_load";
+
+    private final DBConfiguration configuration;
+    private final DB db;
+
+    private EmbeddedDatabase(DBConfiguration configuration, DB db) {
+        this.configuration = configuration;
+        this.db = db;
+    }
+
+    static EmbeddedDatabase start() throws ManagedProcessException {
+        DBConfiguration configuration = DBConfigurationBuilder.newBuilder().setPort(0).build();
+        DB db = DB.newEmbeddedDB(configuration);
+        db.start();
+        db.createDB(NAME);
+        return new EmbeddedDatabase(configuration, db);
+    }
+
+    String url() {
+        return configuration.getURL(NAME);
+    }
+
+    /** Command-line arguments that point the application at this database. */
+    List<String> applicationArguments() {
+        return List.of(
+                "--spring.datasource.url=" + url(),
+                "--spring.datasource.username=root",
+                "--spring.datasource.password=");
+    }
+
+    @Override
+    public void close() throws ManagedProcessException {
+        db.stop();
+    }
+}
@@ -0,0 +1,35 @@
+package com.phrontend.springfm.load;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * The traffic classes the load test drives, with the default mix (roughly what production sees:
+ * mostly reads, few uploads) and default p99 limits.
+ */
+enum Endpoint {
+    SEARCH(55, Duration.ofMillis(250)),
+    SUGGEST(30, Duration.ofMillis(100)),
+    DOWNLOAD(13, Duration.ofMillis(500)),
+    UPLOAD(2, Duration.ofSeconds(2));
+
+    private final int defaultWeight;
+    private final Duration defaultMaxP99;
+
+    Endpoint(int defaultWeight, Duration defaultMaxP99) {
+        this.defaultWeight = defaultWeight;
+        this.defaultMaxP99 = defaultMaxP99;
+    }
+
+    int defaultWeight() {
+        return defaultWeight;
+    }
+
+    Duration defaultMaxP99() {
+        return defaultMaxP99;
+    }
+
+    String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,93 @@
+package com.phrontend.springfm.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Per-endpoint latency histograms (microsecond resolution, three significant digits) and error counts.
+ */
+final class LatencyReport {
+
+    private final Map<Endpoint, Histogram> latencies = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, LongAdder> errors = new EnumMap<>(Endpoint.class);
+    private volatile boolean recording;
+
+    LatencyReport() {
+        for (Endpoint endpoint : Endpoint.values()) {
+            latencies.put(endpoint, new ConcurrentHistogram(3));
+            errors.put(endpoint, new LongAdder());
+        }
+    }
+
+    void startRecording() {
+        recording = true;
+    }
+
+    void stopRecording() {
+        recording = false;
+    }
+
+    void record(Endpoint endpoint, long elapsedNanos, boolean success) {
+        if (!recording) {
+            return;
+        }
+        latencies.get(endpoint).recordValue(TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        if (!success) {
+            errors.get(endpoint).increment();
+        }
+    }
+
+    void print(Duration measured) {
+        double seconds = measured.toMillis() / 1_000.0;
+        System.out.printf("%n%-10s %10s %10s %10s %10s %10s %10s %8s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms", "errors");
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            System.out.printf("%-10s %10d %10.1f %10.2f %10.2f %10.2f %10.2f %8d%n",
+                    endpoint.key(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    errors.get(endpoint).sum());
+        }
+    }
+
+    /**
+     * Returns a description of every threshold the run broke; empty means it passed.
+     */
+    List<String> violations(LoadSettings settings) {
+        List<String> violations = new ArrayList<>();
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = latencies.get(endpoint);
+            long requests = histogram.getTotalCount();
+            if (requests == 0) {
+                continue;
+            }
+            Duration p99 = Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(histogram.getValueAtPercentile(99)));
+            Duration limit = settings.maxP99().get(endpoint);
+            if (p99.compareTo(limit) > 0) {
+                violations.add("%s p99 %d ms exceeds %d ms".formatted(endpoint.key(), p99.toMillis(), limit.toMillis()));
+            }
+            double errorRate = (double) errors.get(endpoint).sum() / requests;
+            if (errorRate > settings.maxErrorRate()) {
+                violations.add("%s error rate %.2f%% exceeds %.2f%%".formatted(
+                        endpoint.key(), errorRate * 100, settings.maxErrorRate() * 100));
+            }
+        }
+        return violations;
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
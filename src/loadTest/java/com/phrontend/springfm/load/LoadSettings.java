@@ -0,0 +1,58 @@
+package com.phrontend.springfm.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load-test knobs, read from {@code loadtest.*} system properties so runs can be reproduced from the
+ * command line alone.
+ *
+ * @param users      seeded users; each one gets an upload-capable token
+ * @param files      seeded files, spread round-robin over the users
+ * @param seed       random seed for the dataset and the request mix
+ * @param clients    concurrent simulated clients
+ * @param warmup     run time before latencies are recorded
+ * @param duration   measured run time
+ * @param mix        relative weight of each endpoint
+ * @param maxP99     p99 latency above which the run fails
+ * @param maxErrorRate share of non-2xx responses above which the run fails
+ */
+record LoadSettings(
+        int users,
+        int files,
+        long seed,
+        int clients,
+        Duration warmup,
+        Duration duration,
+        Map<Endpoint, Integer> mix,
+        Map<Endpoint, Duration> maxP99,
+        double maxErrorRate
+) {
+
+    static LoadSettings fromSystemProperties() {
+        Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+        Map<Endpoint, Duration> maxP99 = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values()) {
+            String name = endpoint.key();
+            mix.put(endpoint, Integer.getInteger("loadtest.mix." + name, endpoint.defaultWeight()));
+            maxP99.put(endpoint, duration("loadtest.max-p99." + name, endpoint.defaultMaxP99()));
+        }
+        return new LoadSettings(
+                Integer.getInteger("loadtest.users", 50),
+                Integer.getInteger("loadtest.files", 5_000),
+                Long.getLong("loadtest.seed", 42L),
+                Integer.getInteger("loadtest.clients", 64),
+                duration("loadtest.warmup", Duration.ofSeconds(15)),
+                duration("loadtest.duration", Duration.ofSeconds(60)),
+                mix,
+                maxP99,
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"))
+        );
+    }
+
+    private static Duration duration(String property, Duration defaultValue) {
+        String value = System.getProperty(property);
+        return value == null ? defaultValue : Duration.parse(value);
+    }
+}
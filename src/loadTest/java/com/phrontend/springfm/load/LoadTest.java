@@ -0,0 +1,68 @@
+package com.phrontend.springfm.load;
+
+import com.phrontend.springfm.SpringFmApplication;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * End-to-end load test: starts an embedded MariaDB and the application on a random port, seeds users
+ * and files, drives the configured mix over HTTP and prints per-endpoint throughput and latency
+ * percentiles. Exits non-zero when a p99 or error-rate threshold is broken, so it can gate a deploy.
+ *
+ * <p>Run with {@code ./gradlew loadTest}; see {@link LoadSettings} for the {@code loadtest.*} knobs.
+ * Rate limiting is switched off, since the point is to find the application's own limits.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        Path storageRoot = Files.createTempDirectory("springfm-load-storage");
+
+        List<String> violations;
+        try (EmbeddedDatabase database = EmbeddedDatabase.start()) {
+            List<String> arguments = new ArrayList<>(database.applicationArguments());
+            arguments.addAll(List.of(
+                    "--server.port=0",
+                    "--management.server.port=0",
+                    "--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("loadtest.pool-size", 10),
+                    "--sfk.jwt.secret=" + AppProcess.JWT_SECRET,
+                    "--app.cors.allowed-origins=http://localhost",
+                    "--app.rate-limit.enabled=false",
+                    "--app.storage.root=" + storageRoot,
+                    "--logging.level.com.phrontend.springfm=WARN"));
+            try (ConfigurableApplicationContext context =
+                         SpringApplication.run(SpringFmApplication.class, arguments.toArray(String[]::new))) {
+
+                long seedStart = System.nanoTime();
+                DatasetSeeder.Seeded seeded = new DatasetSeeder(context).seed(settings, new Dataset(settings.seed()));
+                System.out.printf("Seeded %d users and %d files in %d ms%n", settings.users(), settings.files(),
+                        (System.nanoTime() - seedStart) / 1_000_000);
+
+                URI baseUri = URI.create("http://localhost:" + context.getEnvironment().getProperty("local.server.port"));
+                LatencyReport report = new LatencyReport();
+                System.out.printf("Running %d clients: %s warmup, %s measured, mix %s%n",
+                        settings.clients(), settings.warmup(), settings.duration(), settings.mix());
+                new Workload(baseUri, settings, seeded, report).run();
+
+                report.print(settings.duration());
+                violations = report.violations(settings);
+            }
+        }
+
+        if (violations.isEmpty()) {
+            System.out.println("\nAll thresholds met");
+            System.exit(0);
+        }
+        System.out.println("\nThreshold violations:");
+        violations.forEach(violation -> System.out.println("  " + violation));
+        System.exit(1);
+    }
+}
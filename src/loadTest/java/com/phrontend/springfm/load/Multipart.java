@@ -0,0 +1,25 @@
+package com.phrontend.springfm.load;
+
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Builds the single-file multipart body the upload endpoint expects.
+ */
+final class Multipart {
+
+    static final String BOUNDARY = "----springfm-load-test";
+    static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+    private Multipart() {
+    }
+
+    static HttpRequest.BodyPublisher file(Dataset.SeedFile file) {
+        byte[] head = ("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"" + file.filename() + "\"\r\n"
+                + "Content-Type: " + file.contentType() + "\r\n\r\n").getBytes(StandardCharsets.UTF_8);
+        byte[] tail = ("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.UTF_8);
+        return HttpRequest.BodyPublishers.ofByteArrays(List.of(head, file.content(), tail));
+    }
+}
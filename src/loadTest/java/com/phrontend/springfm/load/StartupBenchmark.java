@@ -0,0 +1,72 @@
+package com.phrontend.springfm.load;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+
+/**
+ * Time from JVM launch to the first served search, for the packaged fat jar (the baseline), the
+ * extracted jar, the extracted jar with Spring AOT, and the latter with the JDK AOT cache from
+ * {@link AotTraining}. Each variant is started {@code loadtest.startup.runs} times (5 by default)
+ * against the same database, after one unmeasured start that applies the migrations.
+ *
+ * <p>Arguments: fat jar, extracted jar, AOT cache. Run through {@code ./gradlew startupBenchmark}.
+ */
+public final class StartupBenchmark {
+
+    private static final String FIRST_REQUEST = "/api/search?q=startup";
+
+    private record Variant(String name, Path jar, List<String> jvmOptions) {
+    }
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path fatJar = Path.of(args[0]);
+        Path extractedJar = Path.of(args[1]);
+        Path cache = Path.of(args[2]);
+        int runs = Integer.getInteger("loadtest.startup.runs", 5);
+
+        List<Variant> variants = new ArrayList<>(List.of(
+                new Variant("fat jar", fatJar, List.of()),
+                new Variant("extracted", extractedJar, List.of()),
+                new Variant("extracted + Spring AOT", extractedJar, List.of("-Dspring.aot.enabled=true"))));
+        if (Files.exists(cache)) {
+            variants.add(new Variant("extracted + Spring AOT + AOT cache", extractedJar,
+                    List.of("-XX:AOTCache=" + cache, "-Dspring.aot.enabled=true")));
+        } else {
+            System.out.printf("No AOT cache at %s, run ./gradlew aotCache to include it%n", cache);
+        }
+
+        HttpClient client = HttpClient.newHttpClient();
+        Path storageRoot = Files.createTempDirectory("springfm-startup");
+        Path log = Files.createTempFile("springfm-startup", ".log");
+        try (EmbeddedDatabase database = EmbeddedDatabase.start()) {
+            try (AppProcess migrate = AppProcess.launch(fatJar, List.of(), database, storageRoot, log)) {
+                migrate.awaitFirstResponse(client, FIRST_REQUEST);
+            }
+
+            Double baseline = null;
+            System.out.printf("%n%-36s %10s %10s %10s %10s%n", "variant", "mean ms", "min ms", "max ms", "vs base");
+            for (Variant variant : variants) {
+                LongSummaryStatistics millis = new LongSummaryStatistics();
+                for (int run = 0; run < runs; run++) {
+                    try (AppProcess app = AppProcess.launch(variant.jar(), variant.jvmOptions(), database, storageRoot, log)) {
+                        Duration firstResponse = app.awaitFirstResponse(client, FIRST_REQUEST);
+                        millis.accept(firstResponse.toMillis());
+                    }
+                }
+                if (baseline == null) {
+                    baseline = millis.getAverage();
+                }
+                System.out.printf("%-36s %10.0f %10d %10d %+9.1f%%%n", variant.name(), millis.getAverage(),
+                        millis.getMin(), millis.getMax(), (millis.getAverage() - baseline) / baseline * 100);
+            }
+        }
+    }
+}
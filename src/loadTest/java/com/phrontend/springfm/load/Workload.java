@@ -0,0 +1,125 @@
+package com.phrontend.springfm.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Closed-loop clients: each one picks an endpoint by weight, sends the request over HTTP, waits for
+ * the full response body and goes again.
+ */
+final class Workload {
+
+    private final URI baseUri;
+    private final LoadSettings settings;
+    private final DatasetSeeder.Seeded seeded;
+    private final LatencyReport report;
+    private final HttpClient httpClient;
+    private final Endpoint[] schedule;
+
+    Workload(URI baseUri, LoadSettings settings, DatasetSeeder.Seeded seeded, LatencyReport report) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.seeded = seeded;
+        this.report = report;
+        this.httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.schedule = schedule(settings.mix());
+    }
+
+    /**
+     * Runs the warmup unrecorded, then the measured phase, and returns once every client has finished.
+     */
+    void run() throws InterruptedException {
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.clients(); i++) {
+                long seed = settings.seed() + i;
+                clients.submit(() -> client(new SplittableRandom(seed), new Dataset(seed), end));
+            }
+            Thread.sleep(settings.warmup());
+            report.startRecording();
+            Thread.sleep(Duration.ofNanos(Math.max(0, end - System.nanoTime())));
+        } finally {
+            report.stopRecording();
+        }
+    }
+
+    private Void client(SplittableRandom random, Dataset dataset, long end) {
+        while (System.nanoTime() < end) {
+            Endpoint endpoint = schedule[random.nextInt(schedule.length)];
+            HttpRequest request = request(endpoint, random, dataset);
+            long start = System.nanoTime();
+            boolean success;
+            try {
+                HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                success = response.statusCode() / 100 == 2;
+            } catch (Exception e) {
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return null;
+                }
+                success = false;
+            }
+            report.record(endpoint, System.nanoTime() - start, success);
+        }
+        return null;
+    }
+
+    private HttpRequest request(Endpoint endpoint, SplittableRandom random, Dataset dataset) {
+        return switch (endpoint) {
+            case SEARCH -> get("/api/search?q=" + encode(dataset.word()) + "&page=" + random.nextInt(3) + "&size=20");
+            case SUGGEST -> get("/api/search/suggest?q=" + encode(dataset.word().substring(0, 3)));
+            case DOWNLOAD -> get("/api/files/" + pick(seeded.fileIds(), random) + "/download");
+            case UPLOAD -> upload(dataset.nextFile(random.nextInt(1_000_000)), pick(seeded.tokens(), random));
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+    }
+
+    private HttpRequest upload(Dataset.SeedFile file, String token) {
+        return HttpRequest.newBuilder(baseUri.resolve("/api/files/upload"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", Multipart.CONTENT_TYPE)
+                .POST(Multipart.file(file))
+                .build();
+    }
+
+    private static <T> T pick(List<T> values, SplittableRandom random) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    /** Expands the weights into a lookup table so picking an endpoint is one random index. */
+    private static Endpoint[] schedule(Map<Endpoint, Integer> mix) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("The load-test mix needs at least one positive weight");
+        }
+        Endpoint[] schedule = new Endpoint[total];
+        int index = 0;
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                schedule[index++] = entry.getKey();
+            }
+        }
+        return schedule;
+    }
+}
@@ -1,13 +1,20 @@
 package com.phrontend.springfm;
 
+import com.phrontend.springfm.config.BandwidthProperties;
+import com.phrontend.springfm.config.BulkheadProperties;
 import com.phrontend.springfm.config.JwtProperties;
+import com.phrontend.springfm.config.RateLimitProperties;
+import com.phrontend.springfm.config.SearchProperties;
 import com.phrontend.springfm.config.StorageProperties;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties({JwtProperties.class, StorageProperties.class})
+@EnableScheduling
+@EnableConfigurationProperties({JwtProperties.class, StorageProperties.class, SearchProperties.class,
+        RateLimitProperties.class, BandwidthProperties.class, BulkheadProperties.class})
 public class SpringFmApplication {
 
     static void main(String[] args) {
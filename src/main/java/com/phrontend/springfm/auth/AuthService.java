@@ -21,8 +21,9 @@ public class AuthService {
     private final JwtService jwtService;
     private final JwtProperties jwtProperties;
     private final PasswordEncoder passwordEncoder;
+    private final TokenRevocationService tokenRevocationService;
 
-    @Transactional
+    // Not transactional: no connection is held while the password is checked on the hashing pool
     public AuthResponse login(LoginRequest request) {
         Authentication authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.email(), request.password())
@@ -48,16 +49,17 @@ public class AuthService {
         return toUserResponse(user);
     }
 
-    @Transactional
+    // Not transactional for the same reason; the unique email constraint still rejects a racing duplicate
     public AuthResponse register(RegisterRequest request) {
         if (userRepository.findByEmailIgnoreCase(request.email()).isPresent()) {
             throw new IllegalArgumentException("Email already registered");
         }
 
+        String passwordHash = passwordEncoder.encode(request.password());
         UserEntity user = UserEntity.builder()
                 .email(request.email())
                 .displayName(request.displayName())
-                .passwordHash(passwordEncoder.encode(request.password()))
+                .passwordHash(passwordHash)
                 .canUpload(false)
                 .build();
 
@@ -68,6 +70,16 @@ public class AuthService {
         return new AuthResponse(token, toUserResponse(user));
     }
 
+    /**
+     * Revokes the token until its expiry. Invalid or already expired tokens are ignored, so logout
+     * always succeeds.
+     */
+    public void logout(String token) {
+        jwtService.verify(token)
+                .filter(claims -> claims.getId() != null)
+                .ifPresent(claims -> tokenRevocationService.revoke(claims.getId(), claims.getExpiration().toInstant()));
+    }
+
     private UserResponse toUserResponse(UserEntity user) {
         return new UserResponse(
                 user.getId().toString(),
@@ -0,0 +1,22 @@
+package com.phrontend.springfm.auth;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+/**
+ * Request details plus the permission version the bearer token was issued at, or {@code null}
+ * for tokens issued before the claim existed.
+ */
+@Getter
+@EqualsAndHashCode(callSuper = true)
+public class JwtAuthenticationDetails extends WebAuthenticationDetails {
+
+    private final Integer permissionVersion;
+
+    public JwtAuthenticationDetails(HttpServletRequest request, Integer permissionVersion) {
+        super(request);
+        this.permissionVersion = permissionVersion;
+    }
+}
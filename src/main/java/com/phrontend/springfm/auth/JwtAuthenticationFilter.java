@@ -1,6 +1,9 @@
 package com.phrontend.springfm.auth;
 
+import com.phrontend.springfm.diagnostics.RequestTrace;
 import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,12 +11,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -22,7 +25,9 @@ import org.springframework.web.filter.OncePerRequestFilter;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtService jwtService;
+    private final JwtClaimsCache jwtClaimsCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -38,8 +43,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
             String token = authHeader.substring(7);
 
-            if (jwtService.validateToken(token)) {
-                Claims claims = jwtService.parseToken(token);
+            JwtVerifyEvent event = new JwtVerifyEvent();
+            event.begin();
+            Timer.Sample sample = Timer.start(meterRegistry);
+            Optional<Claims> parsed = jwtClaimsCache.verify(token);
+            Optional<Claims> verified = parsed.filter(claims -> !tokenRevocationService.isRevoked(claims.getId()));
+            String result = parsed.isEmpty() ? "invalid" : verified.isEmpty() ? "revoked" : "valid";
+            RequestTrace.phase("jwt", sample.stop(meterRegistry.timer("springfm.auth.jwt", "result", result)), -1);
+            event.end();
+            if (event.shouldCommit()) {
+                event.result = result;
+                event.commit();
+            }
+            if (verified.isPresent()) {
+                Claims claims = verified.get();
                 String userId = claims.getSubject();
                 String email = claims.get("email", String.class);
                 Boolean canUpload = claims.get("canUpload", Boolean.class);
@@ -51,7 +68,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userId, null, authorities);
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                authentication.setDetails(new JwtAuthenticationDetails(request,
+                        claims.get(JwtService.PERMISSION_VERSION_CLAIM, Integer.class)));
                 SecurityContextHolder.getContext().setAuthentication(authentication);
                 log.debug("JWT authenticated user: {}", userId);
             } else {
@@ -0,0 +1,98 @@
+package com.phrontend.springfm.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.phrontend.springfm.config.JwtProperties;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.Optional;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Verified claims keyed by the SHA-256 of the bearer token, so repeat requests with the same token
+ * skip decoding, JSON parsing and the signature check. An entry never outlives the token's
+ * {@code exp}; tokens that fail verification are not cached.
+ */
+@Component
+public class JwtClaimsCache {
+
+    private final JwtService jwtService;
+    private final Clock clock;
+    private final Cache<String, Claims> cache;
+
+    @Autowired
+    public JwtClaimsCache(JwtService jwtService, JwtProperties jwtProperties, MeterRegistry meterRegistry) {
+        this(jwtService, jwtProperties.claimsCache().maxEntries(), meterRegistry, Clock.systemUTC());
+    }
+
+    JwtClaimsCache(JwtService jwtService, long maxEntries, MeterRegistry meterRegistry, Clock clock) {
+        this.jwtService = jwtService;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtClaims");
+    }
+
+    public Optional<Claims> verify(String token) {
+        String key = digest(token);
+        Claims cached = cache.getIfPresent(key);
+        if (cached != null && !isExpired(cached)) {
+            return Optional.of(cached);
+        }
+
+        Optional<Claims> claims = jwtService.verify(token);
+        claims.filter(verified -> verified.getExpiration() != null)
+                .ifPresent(verified -> cache.put(key, verified));
+        return claims;
+    }
+
+    private boolean isExpired(Claims claims) {
+        // Caffeine expires lazily between maintenance runs, so check exp itself as well
+        return !claims.getExpiration().toInstant().isAfter(clock.instant());
+    }
+
+    private long nanosUntilExpiry(Claims claims) {
+        Date expiration = claims.getExpiration();
+        long millis = expiration.getTime() - clock.millis();
+        return Math.max(0, millis) * 1_000_000L;
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private final class UntilTokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            return nanosUntilExpiry(claims);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return nanosUntilExpiry(claims);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,11 +3,14 @@ package com.phrontend.springfm.auth;
 import com.phrontend.springfm.config.JwtProperties;
 import com.phrontend.springfm.user.UserEntity;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
+import java.util.Optional;
+import java.util.UUID;
 import javax.crypto.SecretKey;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -16,6 +19,8 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class JwtService {
 
+    public static final String PERMISSION_VERSION_CLAIM = "pv";
+
     private final SecretKey jwtSecretKey;
     private final JwtParser jwtParser;
     private final JwtProperties jwtProperties;
@@ -25,6 +30,7 @@ public class JwtService {
         Instant expiration = now.plus(ttl);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .issuer(jwtProperties.issuer())
                 .subject(user.getId().toString())
                 .issuedAt(Date.from(now))
@@ -32,6 +38,7 @@ public class JwtService {
                 .claim("email", user.getEmail())
                 .claim("name", user.getDisplayName())
                 .claim("canUpload", user.getCanUpload())
+                .claim(PERMISSION_VERSION_CLAIM, user.getPermissionVersion())
                 .signWith(jwtSecretKey)
                 .compact();
     }
@@ -40,12 +47,19 @@ public class JwtService {
         return jwtParser.parseSignedClaims(token).getPayload();
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Parses and verifies the token once, returning its claims, or empty if it is malformed,
+     * wrongly signed, expired or from another issuer.
+     */
+    public Optional<Claims> verify(String token) {
         try {
-            jwtParser.parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return Optional.of(jwtParser.parseSignedClaims(token).getPayload());
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
     }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
 }
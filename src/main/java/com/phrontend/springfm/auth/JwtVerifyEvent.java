@@ -0,0 +1,21 @@
+package com.phrontend.springfm.auth;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(JwtVerifyEvent.NAME)
+@Label("JWT Verify")
+@Description("Verifying a bearer token through the claims cache and the revocation check")
+@Category({"SpringFM", "Auth"})
+@StackTrace(false)
+class JwtVerifyEvent extends Event {
+
+    static final String NAME = "springfm.JwtVerify";
+
+    @Label("Result")
+    String result;
+}
@@ -0,0 +1,18 @@
+package com.phrontend.springfm.auth;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Thrown when the password hashing queue is full. Mapped to {@code 429 Too Many Requests}.
+ */
+@Getter
+public class PasswordHashingBusyException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public PasswordHashingBusyException(Duration retryAfter) {
+        super("Too many login attempts, try again shortly");
+        this.retryAfter = retryAfter;
+    }
+}
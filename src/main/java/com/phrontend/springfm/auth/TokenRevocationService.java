@@ -0,0 +1,104 @@
+package com.phrontend.springfm.auth;
+
+import com.phrontend.springfm.util.BloomFilter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Revoked token ids (jti) in the database, fronted by an in-memory Bloom filter so that the check
+ * on every request is a few bit probes. Only Bloom hits go to the database.
+ * <p>
+ * The filter is rebuilt from the table on a schedule, which drops expired entries and picks up
+ * logouts made on other nodes; until then those are only enforced on the node that took them.
+ */
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Clock clock;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Counter databaseChecks;
+    // Local revocations the last rebuild may have missed; re-added after each swap
+    private final Set<String> recentlyRevoked = ConcurrentHashMap.newKeySet();
+    private volatile BloomFilter filter;
+
+    @Autowired
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  @Value("${app.security.revocation.expected-revocations:100000}") long expectedRevocations,
+                                  @Value("${app.security.revocation.false-positive-rate:0.001}") double falsePositiveRate,
+                                  MeterRegistry meterRegistry) {
+        this(revokedTokenRepository, expectedRevocations, falsePositiveRate, meterRegistry, Clock.systemUTC());
+    }
+
+    TokenRevocationService(RevokedTokenRepository revokedTokenRepository, long expectedRevocations,
+                           double falsePositiveRate, MeterRegistry meterRegistry, Clock clock) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.databaseChecks = Counter.builder("springfm.revocation.database.checks")
+                .description("Revocation checks that passed the Bloom filter and went to the database")
+                .register(meterRegistry);
+        this.filter = BloomFilter.create(expectedRevocations, falsePositiveRate);
+    }
+
+    public void revoke(String jti, Instant expiresAt) {
+        if (!expiresAt.isAfter(clock.instant())) {
+            return;
+        }
+        revokedTokenRepository.save(RevokedToken.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .build());
+        recentlyRevoked.add(jti);
+        filter.add(jti);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !filter.mightContain(jti)) {
+            return false;
+        }
+        databaseChecks.increment();
+        return revokedTokenRepository.findById(jti)
+                .map(token -> token.getExpiresAt().isAfter(clock.instant()))
+                .orElse(false);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${app.security.revocation.refresh-interval:PT30S}",
+            initialDelayString = "${app.security.revocation.refresh-interval:PT30S}")
+    public void refresh() {
+        List<String> active = revokedTokenRepository.findActiveJtis(clock.instant());
+        BloomFilter rebuilt = BloomFilter.create(Math.max(expectedRevocations, active.size() * 2L), falsePositiveRate);
+        active.forEach(rebuilt::add);
+        Set<String> loaded = new HashSet<>(active);
+        recentlyRevoked.removeIf(loaded::contains);
+        recentlyRevoked.forEach(rebuilt::add);
+        filter = rebuilt;
+
+        // A revoke() racing with the swap may have reached only the old filter
+        recentlyRevoked.forEach(rebuilt::add);
+    }
+
+    @Scheduled(fixedDelayString = "${app.security.revocation.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = revokedTokenRepository.deleteExpired(clock.instant());
+        if (purged > 0) {
+            log.info("Purged {} expired token revocations", purged);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.phrontend.springfm.auth;
+
+import com.phrontend.springfm.user.PermissionVersionCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides whether the caller may upload, for {@code @PreAuthorize("@uploadAuthorization.canUpload(authentication)")}.
+ * <ul>
+ *     <li>{@code CLAIMS} trusts the signed {@code UPLOAD} authority, as long as the token's permission
+ *     version still matches the user's (cached for a few seconds). Tokens without a version fall back
+ *     to the database.</li>
+ *     <li>{@code DATABASE} loads the user on every upload.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class UploadAuthorization {
+
+    public enum Mode {
+        CLAIMS,
+        DATABASE
+    }
+
+    private static final String UPLOAD_AUTHORITY = "UPLOAD";
+
+    private final Mode mode;
+    private final AuthService authService;
+    private final PermissionVersionCache permissionVersionCache;
+
+    public UploadAuthorization(@Value("${app.security.upload-authorization:CLAIMS}") Mode mode,
+                               AuthService authService,
+                               PermissionVersionCache permissionVersionCache) {
+        this.mode = mode;
+        this.authService = authService;
+        this.permissionVersionCache = permissionVersionCache;
+    }
+
+    public boolean canUpload(Authentication authentication) {
+        if (authentication == null || !(authentication.getPrincipal() instanceof String userId)) {
+            return false;
+        }
+        if (mode == Mode.DATABASE) {
+            return authService.currentUser(userId).canUpload();
+        }
+
+        boolean hasAuthority = authentication.getAuthorities().stream()
+                .anyMatch(authority -> UPLOAD_AUTHORITY.equals(authority.getAuthority()));
+        if (!hasAuthority) {
+            return false;
+        }
+
+        Integer tokenVersion = authentication.getDetails() instanceof JwtAuthenticationDetails details
+                ? details.getPermissionVersion()
+                : null;
+        if (tokenVersion == null) {
+            return authService.currentUser(userId).canUpload();
+        }
+
+        boolean current = permissionVersionCache.current(Long.parseLong(userId)) == tokenVersion;
+        if (!current) {
+            log.debug("Upload refused for user {}: token permission version {} is stale", userId, tokenVersion);
+        }
+        return current;
+    }
+}
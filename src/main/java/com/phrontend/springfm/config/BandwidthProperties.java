@@ -0,0 +1,21 @@
+package com.phrontend.springfm.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Download bandwidth shaping. Rates are per second; a zero rate means no limit at that level.
+ *
+ * @param global      shared by all downloads on this node
+ * @param perClient   shared by the downloads of one user (or address, when anonymous)
+ * @param bypassBelow downloads smaller than this are sent unshaped
+ */
+@ConfigurationProperties(prefix = "app.download.bandwidth")
+public record BandwidthProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0") DataSize global,
+        @DefaultValue("0") DataSize perClient,
+        @DefaultValue("1MB") DataSize bypassBelow
+) {
+}
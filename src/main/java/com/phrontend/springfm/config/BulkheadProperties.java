@@ -0,0 +1,61 @@
+package com.phrontend.springfm.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Concurrency limits per traffic class, one for work that holds a database connection and one for
+ * disk-heavy work. A limit of 0 leaves that resource unlimited for the class. Requests wait up to
+ * {@code maxWait} for a permit and are then refused with {@code 503}.
+ * <p>
+ * The database permit is held for the whole request by default. Classes that only use the database
+ * for a short part of the request (uploads: one insert after the file is on disk) set
+ * {@code database-scope: CALL} to take it around each connection checkout instead.
+ */
+@ConfigurationProperties(prefix = "app.bulkhead")
+public record BulkheadProperties(
+        @DefaultValue("true") boolean enabled,
+        Limits search,
+        Limits upload,
+        Limits download,
+        Limits auth
+) {
+
+    public BulkheadProperties {
+        // Search and uploads get 7 of Hikari's default pool of 10, leaving the rest for logins, JWT
+        // lookups and background work
+        if (search == null) {
+            search = new Limits(5, 0, Duration.ofMillis(500), DatabaseScope.REQUEST);
+        }
+        if (upload == null) {
+            upload = new Limits(2, 4, Duration.ofSeconds(2), DatabaseScope.CALL);
+        }
+        if (download == null) {
+            download = new Limits(0, 64, Duration.ofSeconds(1), DatabaseScope.REQUEST);
+        }
+        if (auth == null) {
+            // BoundedPasswordEncoder already caps concurrent hashing; a database permit held for the
+            // whole login would cap it again at the database limit
+            auth = new Limits(0, 0, Duration.ofSeconds(1), DatabaseScope.REQUEST);
+        }
+    }
+
+    public enum DatabaseScope {
+        /** Held from the start to the end of the request. */
+        REQUEST,
+        /** Held while a connection is checked out from the pool. */
+        CALL
+    }
+
+    /**
+     * @param database      concurrent requests (or, with {@code CALL} scope, connections) of the class
+     *                      using the database
+     * @param disk          concurrent requests of the class reading or writing files
+     * @param maxWait       how long a request may queue for a permit
+     * @param databaseScope what the database permit is held for
+     */
+    public record Limits(int database, int disk, Duration maxWait,
+                         @DefaultValue("REQUEST") DatabaseScope databaseScope) {
+    }
+}
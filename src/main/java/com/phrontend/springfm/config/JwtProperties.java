@@ -2,12 +2,32 @@ package com.phrontend.springfm.config;
 
 import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
 
 @ConfigurationProperties(prefix = "sfk.jwt")
 public record JwtProperties(
         String secret,
         String issuer,
         Duration accessTokenTtl,
-        Duration rememberMeTtl
+        Duration rememberMeTtl,
+        @DefaultValue ClaimsCache claimsCache
 ) {
+
+    @ConstructorBinding
+    public JwtProperties {
+        if (claimsCache == null) {
+            claimsCache = new ClaimsCache(10_000);
+        }
+    }
+
+    public JwtProperties(String secret, String issuer, Duration accessTokenTtl, Duration rememberMeTtl) {
+        this(secret, issuer, accessTokenTtl, rememberMeTtl, null);
+    }
+
+    /**
+     * @param maxEntries verified tokens kept by {@code JwtClaimsCache}
+     */
+    public record ClaimsCache(@DefaultValue("10000") long maxEntries) {
+    }
 }
@@ -0,0 +1,44 @@
+package com.phrontend.springfm.config;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Per-client token bucket budgets. Clients are keyed by user id when authenticated and by remote
+ * address otherwise.
+ */
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("100000") long maxBuckets,
+        @DefaultValue("PT10M") Duration idleTimeout,
+        Budget search,
+        Budget suggest,
+        Budget download,
+        Budget upload
+) {
+
+    public RateLimitProperties {
+        if (search == null) {
+            search = new Budget(60, 2);
+        }
+        if (suggest == null) {
+            suggest = new Budget(30, 10);
+        }
+        if (download == null) {
+            // Bytes: a 512MB burst, then 50MB/s
+            download = new Budget(512L * 1024 * 1024, 50d * 1024 * 1024);
+        }
+        if (upload == null) {
+            upload = new Budget(20, 0.2);
+        }
+    }
+
+    /**
+     * @param capacity        tokens available in a burst
+     * @param refillPerSecond tokens returned per second
+     */
+    public record Budget(long capacity, double refillPerSecond) {
+    }
+}
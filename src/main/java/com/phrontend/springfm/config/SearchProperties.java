@@ -0,0 +1,15 @@
+package com.phrontend.springfm.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "app.search")
+public record SearchProperties(@DefaultValue("LIKE") Mode mode) {
+
+    public enum Mode {
+        /** Substring match with LIKE '%q%' on title, filename and metadata text. */
+        LIKE,
+        /** MariaDB FULLTEXT index queried with MATCH ... AGAINST in boolean mode. */
+        FULLTEXT
+    }
+}
@@ -1,6 +1,12 @@
 package com.phrontend.springfm.config;
 
+import com.phrontend.springfm.auth.BoundedPasswordEncoder;
 import com.phrontend.springfm.auth.JwtAuthenticationFilter;
+import com.phrontend.springfm.diagnostics.SlowRequestFilter;
+import com.phrontend.springfm.ratelimit.BandwidthShapingFilter;
+import com.phrontend.springfm.ratelimit.BulkheadFilter;
+import com.phrontend.springfm.ratelimit.RateLimitFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.util.Arrays;
 import java.util.List;
@@ -18,6 +24,7 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -28,10 +35,20 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 public class SecurityConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
+    private final BandwidthShapingFilter bandwidthShapingFilter;
+    private final BulkheadFilter bulkheadFilter;
+    private final SlowRequestFilter slowRequestFilter;
 
     @Value("${app.cors.allowed-origins}")
     private String allowedOrigins;
 
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) {
         http
@@ -43,26 +60,48 @@ public class SecurityConfig {
                         .requestMatchers("/api/auth/login").permitAll()
                         .requestMatchers("/api/auth/logout").permitAll()
                         .requestMatchers(org.springframework.http.HttpMethod.OPTIONS, "/api/**").permitAll()
+                        .requestMatchers("/api/search/export").authenticated()  // Full-result scans
                         .requestMatchers("/api/search/**").permitAll()
                         .requestMatchers("/api/files/*/download").permitAll()  // Public downloads
-                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/livez", "/readyz").permitAll()  // Probes on the main port
+                        .requestMatchers(managementPortOnly()).permitAll()
                         .requestMatchers("/api/auth/me").authenticated()
                         .requestMatchers("/api/files/**").authenticated()  // Upload requires auth
                         .anyRequest().denyAll()
                 )
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(slowRequestFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class)
+                .addFilterAfter(bandwidthShapingFilter, RateLimitFilter.class)
+                .addFilterAfter(bulkheadFilter, BandwidthShapingFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Operational endpoints are served on their own management port, bound to loopback, never through
+     * the reverse proxy. The local port belongs to the accepting socket, so forwarded headers can't fake it.
+     */
+    private RequestMatcher managementPortOnly() {
+        return request -> managementPort > 0
+                && managementPort != serverPort
+                && request.getLocalPort() == managementPort;
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration configuration) {
         return configuration.getAuthenticationManager();
     }
 
+    /**
+     * BCrypt on a worker pool sized to the cores (by default), so logins cannot starve other traffic.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.password-hashing.threads:0}") int threads,
+                                           @Value("${app.security.password-hashing.queue-capacity:64}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), workers, queueCapacity, meterRegistry);
     }
 
     @Bean
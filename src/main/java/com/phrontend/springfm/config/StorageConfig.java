@@ -0,0 +1,48 @@
+package com.phrontend.springfm.config;
+
+import com.phrontend.springfm.storage.HotFileCache;
+import com.phrontend.springfm.storage.LocalStorageBackend;
+import com.phrontend.springfm.storage.S3StorageBackend;
+import com.phrontend.springfm.storage.ShardedStorageBackend;
+import com.phrontend.springfm.storage.StorageBackend;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    public StorageBackend storageBackend(StorageProperties properties) throws IOException {
+        return switch (properties.backend()) {
+            case LOCAL -> new LocalStorageBackend(Paths.get(properties.root()));
+            case SHARDED -> {
+                if (properties.roots().isEmpty()) {
+                    throw new IllegalStateException("app.storage.roots must list at least one directory");
+                }
+                List<LocalStorageBackend> shards = new ArrayList<>();
+                for (String root : properties.roots()) {
+                    shards.add(new LocalStorageBackend(Paths.get(root)));
+                }
+                yield new ShardedStorageBackend(shards);
+            }
+            case S3 -> {
+                if (properties.s3() == null || properties.s3().bucket() == null) {
+                    throw new IllegalStateException("app.storage.s3.bucket is required for the S3 backend");
+                }
+                yield S3StorageBackend.create(properties.s3());
+            }
+        };
+    }
+
+    @Bean
+    public HotFileCache hotFileCache(StorageProperties properties, MeterRegistry meterRegistry) {
+        StorageProperties.Cache cache = properties.cache();
+        long capacity = cache.enabled() ? cache.maxSize().toBytes() : 0;
+        return new HotFileCache(capacity, cache.maxFileSize().toBytes(), meterRegistry);
+    }
+}
@@ -1,7 +1,120 @@
 package com.phrontend.springfm.config;
 
+import java.time.Duration;
+import java.util.List;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
 
 @ConfigurationProperties(prefix = "app.storage")
-public record StorageProperties(String root) {
+public record StorageProperties(
+        String root,
+        @DefaultValue("LOCAL") Backend backend,
+        List<String> roots,
+        @DefaultValue Pack pack,
+        @DefaultValue Cache cache,
+        @DefaultValue Scrub scrub,
+        S3 s3
+) {
+
+    @ConstructorBinding
+    public StorageProperties {
+        if (backend == null) {
+            backend = Backend.LOCAL;
+        }
+        if (roots == null) {
+            roots = List.of();
+        }
+        if (pack == null) {
+            pack = Pack.disabled();
+        }
+        if (cache == null) {
+            cache = Cache.disabled();
+        }
+        if (scrub == null) {
+            scrub = Scrub.disabled();
+        }
+    }
+
+    public StorageProperties(String root) {
+        this(root, Backend.LOCAL, List.of(), null, null, null, null);
+    }
+
+    public enum Backend {
+        /** One directory tree below {@code root}. */
+        LOCAL,
+        /** Blobs spread over {@code roots} by consistent hashing. */
+        SHARDED,
+        /** An S3-compatible object store. */
+        S3
+    }
+
+    /**
+     * Pack storage appends small blobs to large segment files instead of writing one file per upload.
+     * Segments are kept below {@code root}, so it is only available with the {@code LOCAL} backend.
+     */
+    public record Pack(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("64KB") DataSize maxBlobSize,
+            @DefaultValue("256MB") DataSize segmentSize,
+            @DefaultValue("0.5") double compactionThreshold,
+            @DefaultValue("PT10M") Duration compactionInterval
+    ) {
+        public static Pack disabled() {
+            return new Pack(false, DataSize.ofKilobytes(64), DataSize.ofMegabytes(256), 0.5, Duration.ofMinutes(10));
+        }
+    }
+
+    /**
+     * Off-heap cache of small, frequently downloaded files, keyed by content hash.
+     */
+    public record Cache(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("256MB") DataSize maxSize,
+            @DefaultValue("1MB") DataSize maxFileSize
+    ) {
+        public static Cache disabled() {
+            return new Cache(false, DataSize.ofMegabytes(256), DataSize.ofMegabytes(1));
+        }
+    }
+
+    /**
+     * Background comparison of the storage tree with {@code stored_files}: blobs no row points to
+     * (orphans) and rows whose blob is gone (missing). REPORT only logs and publishes them; REPAIR
+     * also deletes orphans older than {@code gracePeriod} and rows with missing blobs, at most
+     * {@code maxRepairs} of each per run. Runs start {@code initialDelay} after startup and then
+     * {@code interval} after the previous one finished.
+     */
+    public record Scrub(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("REPORT") ScrubMode mode,
+            @DefaultValue("PT15M") Duration initialDelay,
+            @DefaultValue("PT24H") Duration interval,
+            @DefaultValue("PT1H") Duration gracePeriod,
+            @DefaultValue("2") int parallelism,
+            @DefaultValue("500") double filesPerSecond,
+            @DefaultValue("1000") int maxRepairs
+    ) {
+        public static Scrub disabled() {
+            return new Scrub(false, ScrubMode.REPORT, Duration.ofMinutes(15), Duration.ofHours(24),
+                    Duration.ofHours(1), 2, 500, 1000);
+        }
+    }
+
+    public enum ScrubMode {
+        REPORT,
+        REPAIR
+    }
+
+    public record S3(
+            String endpoint,
+            @DefaultValue("us-east-1") String region,
+            String bucket,
+            String prefix,
+            String accessKey,
+            String secretKey,
+            @DefaultValue("true") boolean pathStyle
+    ) {
+    }
 }
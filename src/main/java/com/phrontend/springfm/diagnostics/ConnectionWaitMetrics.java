@@ -0,0 +1,120 @@
+package com.phrontend.springfm.diagnostics;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Connection-pool wait per endpoint as {@code springfm.db.connection.wait{endpoint}}, next to the
+ * pool-wide {@code hikaricp.*} meters. Hikari reports each checkout on the borrowing thread, so the
+ * endpoint is taken from that thread's request: its method and route pattern, {@code filters} for
+ * checkouts before the handler is mapped (JWT user lookups) and {@code background} outside requests.
+ * Part of the virtual-thread diagnostics and switched off with them.
+ */
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.virtual-threads.enabled", matchIfMissing = true)
+public class ConnectionWaitMetrics implements BeanPostProcessor {
+
+    static final String FILTERS = "filters";
+    static final String BACKGROUND = "background";
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public ConnectionWaitMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource
+                && dataSource.getMetricRegistry() == null && dataSource.getMetricsTrackerFactory() == null) {
+            dataSource.setMetricsTrackerFactory(new PerEndpointTrackerFactory(meterRegistry.getObject()));
+        }
+        return bean;
+    }
+
+    static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return BACKGROUND;
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern == null ? FILTERS : request.getMethod() + " " + pattern;
+    }
+
+    /**
+     * Keeps Spring Boot's Micrometer tracker for the pool-wide meters and adds the per-endpoint ones.
+     */
+    static final class PerEndpointTrackerFactory implements MetricsTrackerFactory {
+
+        private final MeterRegistry meterRegistry;
+        private final MicrometerMetricsTrackerFactory poolWide;
+
+        PerEndpointTrackerFactory(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            this.poolWide = new MicrometerMetricsTrackerFactory(meterRegistry);
+        }
+
+        @Override
+        public IMetricsTracker create(String poolName, PoolStats poolStats) {
+            return new PerEndpointTracker(meterRegistry, poolName, poolWide.create(poolName, poolStats));
+        }
+    }
+
+    static final class PerEndpointTracker implements IMetricsTracker {
+
+        private final MeterRegistry meterRegistry;
+        private final String poolName;
+        private final IMetricsTracker poolWide;
+
+        PerEndpointTracker(MeterRegistry meterRegistry, String poolName, IMetricsTracker poolWide) {
+            this.meterRegistry = meterRegistry;
+            this.poolName = poolName;
+            this.poolWide = poolWide;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            poolWide.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            poolWide.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            meterRegistry.timer("springfm.db.connection.wait", "pool", poolName, "endpoint", currentEndpoint())
+                    .record(elapsedAcquiredNanos, TimeUnit.NANOSECONDS);
+            RequestTrace.phase("db.connection.wait", elapsedAcquiredNanos, -1);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            poolWide.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            poolWide.recordConnectionTimeout();
+            meterRegistry.counter("springfm.db.connection.timeouts", "pool", poolName, "endpoint", currentEndpoint())
+                    .increment();
+        }
+
+        @Override
+        public void close() {
+            poolWide.close();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.phrontend.springfm.diagnostics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * What one sampled request did: the SQL it ran and the time and rows of each instrumented phase.
+ * Started and finished by {@link SlowRequestFilter} on the request thread; everything else only
+ * appends through the static methods, which do nothing outside a sampled request.
+ * <p>
+ * Recording is deliberately cheap because it happens before anyone knows whether the request
+ * will turn out slow: statements are kept by reference and the lists are only created on first use.
+ */
+public final class RequestTrace {
+
+    static final int MAX_STATEMENTS = 50;
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    public record Phase(String name, long nanos, long rows) {
+    }
+
+    private List<String> statements;
+    private List<Phase> phases;
+    private int droppedStatements;
+
+    private RequestTrace() {
+    }
+
+    static RequestTrace start() {
+        RequestTrace trace = new RequestTrace();
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void finish() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Records a phase of the current request; {@code rows} is -1 when the phase does not return rows.
+     */
+    public static void phase(String name, long nanos, long rows) {
+        RequestTrace trace = CURRENT.get();
+        if (trace != null) {
+            if (trace.phases == null) {
+                trace.phases = new ArrayList<>(4);
+            }
+            trace.phases.add(new Phase(name, nanos, rows));
+        }
+    }
+
+    static void statement(String sql) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return;
+        }
+        if (trace.statements == null) {
+            trace.statements = new ArrayList<>(4);
+        }
+        if (trace.statements.size() < MAX_STATEMENTS) {
+            trace.statements.add(sql);
+        } else {
+            trace.droppedStatements++;
+        }
+    }
+
+    List<String> statements() {
+        return statements == null ? List.of() : List.copyOf(statements);
+    }
+
+    List<Phase> phases() {
+        return phases == null ? List.of() : List.copyOf(phases);
+    }
+
+    int droppedStatements() {
+        return droppedStatements;
+    }
+}
@@ -0,0 +1,26 @@
+package com.phrontend.springfm.diagnostics;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A request that took at least the slow-request threshold, as exposed by the {@code slowrequests}
+ * actuator endpoint. Rows are summed over the phases that return rows.
+ */
+public record SlowRequest(
+        Instant finishedAt,
+        String method,
+        String path,
+        Map<String, String> parameters,
+        int status,
+        double durationMillis,
+        long rows,
+        List<PhaseTiming> phases,
+        List<String> sql,
+        int droppedSql
+) {
+
+    public record PhaseTiming(String name, double millis, long rows) {
+    }
+}
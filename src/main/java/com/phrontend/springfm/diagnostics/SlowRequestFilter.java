@@ -0,0 +1,112 @@
+package com.phrontend.springfm.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Traces search and file requests and hands those at or above the threshold to {@link SlowRequestLog}
+ * with their normalized parameters, SQL, rows and phase timings. Runs first in the security chain
+ * so authentication counts towards the latency.
+ * <p>
+ * Streaming responses (exports, NDJSON listings) write their body on another thread, so only the
+ * work done before streaming starts is traced for them. Downloads are not traced at all: their time
+ * is dominated by bandwidth shaping and the client's link, so they would crowd real slow requests
+ * out of the log.
+ */
+@Slf4j
+@Component
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private static final Pattern UUID_SEGMENT =
+            Pattern.compile("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)");
+    private static final Pattern DOWNLOAD = Pattern.compile("/api/files/[^/]+/download");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_PARAMETER_LENGTH = 200;
+
+    private final SlowRequestLog slowRequestLog;
+    private final boolean enabled;
+
+    public SlowRequestFilter(SlowRequestLog slowRequestLog,
+                             @Value("${app.diagnostics.slow-requests.enabled:true}") boolean enabled) {
+        this.slowRequestLog = slowRequestLog;
+        this.enabled = enabled;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !enabled
+                || !(uri.startsWith("/api/search") || uri.startsWith("/api/files"))
+                || DOWNLOAD.matcher(uri).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestTrace trace = RequestTrace.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTrace.finish();
+            long elapsed = System.nanoTime() - start;
+            if (slowRequestLog.isSlow(elapsed)) {
+                SlowRequest slow = toSlowRequest(request, response.getStatus(), elapsed, trace);
+                log.debug("Slow request: {} {} took {} ms", slow.method(), slow.path(), slow.durationMillis());
+                slowRequestLog.add(slow);
+            }
+        }
+    }
+
+    private static SlowRequest toSlowRequest(HttpServletRequest request, int status, long elapsed, RequestTrace trace) {
+        List<RequestTrace.Phase> phases = trace.phases();
+        long rows = phases.stream().mapToLong(RequestTrace.Phase::rows).filter(count -> count > 0).sum();
+        return new SlowRequest(
+                Instant.now(),
+                request.getMethod(),
+                UUID_SEGMENT.matcher(request.getRequestURI()).replaceAll("/{id}"),
+                normalize(request.getParameterMap()),
+                status,
+                elapsed / 1_000_000.0,
+                rows,
+                phases.stream()
+                        .map(phase -> new SlowRequest.PhaseTiming(phase.name(), phase.nanos() / 1_000_000.0, phase.rows()))
+                        .toList(),
+                trace.statements(),
+                trace.droppedStatements()
+        );
+    }
+
+    /**
+     * Sorted keys, multiple values joined and the search text lower-cased with whitespace collapsed,
+     * so the same search always looks the same.
+     */
+    static Map<String, String> normalize(Map<String, String[]> parameters) {
+        Map<String, String> normalized = new TreeMap<>();
+        parameters.forEach((name, values) -> {
+            String value = String.join(",", values);
+            if ("q".equals(name)) {
+                value = WHITESPACE.matcher(value.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+            }
+            if (value.length() > MAX_PARAMETER_LENGTH) {
+                value = value.substring(0, MAX_PARAMETER_LENGTH) + "…";
+            }
+            normalized.put(name, value);
+        });
+        return normalized;
+    }
+}
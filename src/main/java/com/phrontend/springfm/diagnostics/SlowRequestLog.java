@@ -0,0 +1,72 @@
+package com.phrontend.springfm.diagnostics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * The most recent slow requests in a fixed-size ring buffer, newest first at
+ * {@code /actuator/slowrequests}. A DELETE on the endpoint empties it.
+ */
+@Component
+@Endpoint(id = "slowrequests")
+public class SlowRequestLog {
+
+    private final Duration threshold;
+    private final AtomicReferenceArray<SlowRequest> slots;
+    private final AtomicLong written = new AtomicLong();
+    private final Counter sampled;
+
+    public SlowRequestLog(@Value("${app.diagnostics.slow-requests.threshold:PT0.5S}") Duration threshold,
+                          @Value("${app.diagnostics.slow-requests.capacity:200}") int capacity,
+                          MeterRegistry meterRegistry) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow request capacity must be positive");
+        }
+        this.threshold = threshold;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.sampled = Counter.builder("springfm.slow.requests")
+                .description("Requests at or above the slow-request threshold")
+                .register(meterRegistry);
+    }
+
+    boolean isSlow(long nanos) {
+        return nanos >= threshold.toNanos();
+    }
+
+    void add(SlowRequest request) {
+        long index = written.getAndIncrement();
+        slots.set((int) (index % slots.length()), request);
+        sampled.increment();
+    }
+
+    @ReadOperation
+    public List<SlowRequest> recent() {
+        long end = written.get();
+        long start = Math.max(0, end - slots.length());
+        List<SlowRequest> recent = new ArrayList<>((int) (end - start));
+        for (long i = end - 1; i >= start; i--) {
+            SlowRequest request = slots.get((int) (i % slots.length()));
+            if (request != null) {
+                recent.add(request);
+            }
+        }
+        return recent;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.phrontend.springfm.diagnostics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hands every SQL statement Hibernate prepares to the current {@link RequestTrace}, unchanged.
+ * Registered through {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlCapture implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestTrace.statement(sql);
+        return sql;
+    }
+}
@@ -0,0 +1,203 @@
+package com.phrontend.springfm.diagnostics;
+
+import com.phrontend.springfm.diagnostics.VirtualThreadReport.ConnectionWait;
+import com.phrontend.springfm.diagnostics.VirtualThreadReport.PinnedSite;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import jdk.management.VirtualThreadSchedulerMXBean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Whether blocking work is capping throughput: carrier utilization and queued virtual threads from the
+ * scheduler MXBean, pinned events from a JFR stream, and connection-pool wait per endpoint from
+ * {@link ConnectionWaitMetrics}. Served at {@code /actuator/virtualthreads} and as
+ * {@code springfm.vthreads.*} meters.
+ * <p>
+ * Pinning (a virtual thread that cannot unmount while blocked in native code, a class initializer or
+ * a JDBC driver's critical section) holds its carrier for the whole wait; once every carrier is pinned
+ * or busy, queued virtual threads wait even though the CPUs are idle.
+ * <p>
+ * The stream only enables {@code jdk.VirtualThreadPinned} above the threshold; start and end events
+ * fire for every virtual thread, one per request, and are too expensive to record continuously.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.diagnostics.virtual-threads.enabled", matchIfMissing = true)
+@Endpoint(id = "virtualthreads")
+public class VirtualThreadMonitor {
+
+    static final int MAX_PINNED_SITES = 100;
+    static final String OTHER_SITE = "other";
+
+    private static final int WINDOW_SECONDS = 60;
+
+    private final Duration pinnedThreshold;
+    private final MeterRegistry meterRegistry;
+    private final VirtualThreadSchedulerMXBean scheduler;
+
+    private final AtomicLongArray windowCounts = new AtomicLongArray(WINDOW_SECONDS);
+    private final AtomicLongArray windowSeconds = new AtomicLongArray(WINDOW_SECONDS);
+    private final ConcurrentMap<String, SiteStats> sites = new ConcurrentHashMap<>();
+    private final Counter pinned;
+    private final Timer pinnedDuration;
+    private RecordingStream stream;
+
+    public VirtualThreadMonitor(@Value("${app.diagnostics.virtual-threads.pinned-threshold:PT20MS}") Duration pinnedThreshold,
+                                MeterRegistry meterRegistry) {
+        this.pinnedThreshold = pinnedThreshold;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = ManagementFactory.getPlatformMXBean(VirtualThreadSchedulerMXBean.class);
+        this.pinned = Counter.builder("springfm.vthreads.pinned")
+                .description("Virtual threads pinned to their carrier for at least the pinned threshold")
+                .register(meterRegistry);
+        this.pinnedDuration = Timer.builder("springfm.vthreads.pinned.duration")
+                .description("How long carriers stayed pinned")
+                .register(meterRegistry);
+
+        Gauge.builder("springfm.vthreads.carriers.parallelism", scheduler, VirtualThreadSchedulerMXBean::getParallelism)
+                .register(meterRegistry);
+        Gauge.builder("springfm.vthreads.carriers.pool", scheduler, VirtualThreadSchedulerMXBean::getPoolSize)
+                .description("Carrier threads, including those compensating for pinned ones")
+                .register(meterRegistry);
+        Gauge.builder("springfm.vthreads.mounted", scheduler, VirtualThreadSchedulerMXBean::getMountedVirtualThreadCount)
+                .register(meterRegistry);
+        Gauge.builder("springfm.vthreads.queued", scheduler, VirtualThreadSchedulerMXBean::getQueuedVirtualThreadCount)
+                .description("Virtual threads ready to run but waiting for a carrier")
+                .register(meterRegistry);
+        Gauge.builder("springfm.vthreads.carriers.utilization", this, VirtualThreadMonitor::carrierUtilization)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        stream = new RecordingStream();
+        stream.enable("jdk.VirtualThreadPinned").withThreshold(pinnedThreshold).withStackTrace();
+        stream.onEvent("jdk.VirtualThreadPinned", this::onPinned);
+        stream.setMaxAge(Duration.ofSeconds(10));
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned {} or longer", pinnedThreshold);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    @ReadOperation
+    public VirtualThreadReport report() {
+        List<PinnedSite> pinnedSites = sites.entrySet().stream()
+                .map(entry -> new PinnedSite(entry.getKey(), entry.getValue().count.get(),
+                        entry.getValue().maxNanos.get() / 1_000_000.0))
+                .sorted(Comparator.comparingLong(PinnedSite::count).reversed())
+                .toList();
+        return new VirtualThreadReport(
+                scheduler.getParallelism(),
+                scheduler.getPoolSize(),
+                scheduler.getMountedVirtualThreadCount(),
+                scheduler.getQueuedVirtualThreadCount(),
+                carrierUtilization(),
+                pinnedThreshold.toString(),
+                (long) pinned.count(),
+                pinnedLastMinute(System.currentTimeMillis() / 1000),
+                pinnedSites,
+                connectionWait());
+    }
+
+    void onPinned(RecordedEvent event) {
+        recordPinned(site(event.getStackTrace()), event.getDuration().toNanos(), event.getStartTime().getEpochSecond());
+    }
+
+    void recordPinned(String site, long nanos, long epochSecond) {
+        pinned.increment();
+        pinnedDuration.record(nanos, TimeUnit.NANOSECONDS);
+
+        int slot = (int) (epochSecond % WINDOW_SECONDS);
+        long previous = windowSeconds.getAndSet(slot, epochSecond);
+        if (previous != epochSecond) {
+            windowCounts.set(slot, 0);
+        }
+        windowCounts.incrementAndGet(slot);
+
+        String key = sites.containsKey(site) || sites.size() < MAX_PINNED_SITES ? site : OTHER_SITE;
+        SiteStats stats = sites.computeIfAbsent(key, k -> new SiteStats());
+        stats.count.incrementAndGet();
+        stats.maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    long pinnedLastMinute(long nowEpochSecond) {
+        long total = 0;
+        for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+            if (nowEpochSecond - windowSeconds.get(slot) < WINDOW_SECONDS) {
+                total += windowCounts.get(slot);
+            }
+        }
+        return total;
+    }
+
+    double carrierUtilization() {
+        int parallelism = scheduler.getParallelism();
+        return parallelism == 0 ? 0 : Math.min(1.0, (double) scheduler.getMountedVirtualThreadCount() / parallelism);
+    }
+
+    private List<ConnectionWait> connectionWait() {
+        return meterRegistry.find("springfm.db.connection.wait").timers().stream()
+                .map(timer -> {
+                    String endpoint = timer.getId().getTag("endpoint");
+                    Counter timeouts = meterRegistry.find("springfm.db.connection.timeouts")
+                            .tag("endpoint", endpoint).counter();
+                    return new ConnectionWait(endpoint, timer.count(), timer.mean(TimeUnit.MILLISECONDS),
+                            timer.max(TimeUnit.MILLISECONDS), timeouts == null ? 0 : (long) timeouts.count());
+                })
+                .sorted(Comparator.comparingDouble(ConnectionWait::meanMillis).reversed())
+                .toList();
+    }
+
+    private static String site(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            if (frame.isJavaFrame() && !isJdk(frame.getMethod().getType().getName())) {
+                return describe(frame);
+            }
+        }
+        return describe(stackTrace.getFrames().getFirst());
+    }
+
+    private static boolean isJdk(String className) {
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.");
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static final class SiteStats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+    }
+}
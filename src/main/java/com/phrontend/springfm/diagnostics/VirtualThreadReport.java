@@ -0,0 +1,32 @@
+package com.phrontend.springfm.diagnostics;
+
+import java.util.List;
+
+/**
+ * Snapshot served at {@code /actuator/virtualthreads}.
+ *
+ * @param carrierUtilization mounted virtual threads per carrier the scheduler may use, 1.0 meaning all carriers are busy
+ * @param pinnedLastMinute   pinned events at or above {@code pinnedThreshold} in the last 60 seconds
+ */
+public record VirtualThreadReport(
+        int parallelism,
+        int carrierPoolSize,
+        int mountedVirtualThreads,
+        long queuedVirtualThreads,
+        double carrierUtilization,
+        String pinnedThreshold,
+        long pinnedTotal,
+        long pinnedLastMinute,
+        List<PinnedSite> pinnedSites,
+        List<ConnectionWait> connectionWait
+) {
+
+    /**
+     * Where carriers were pinned: the first frame outside the JDK, or the top frame when there is none.
+     */
+    public record PinnedSite(String frame, long count, double maxMillis) {
+    }
+
+    public record ConnectionWait(String endpoint, long count, double meanMillis, double maxMillis, long timeouts) {
+    }
+}
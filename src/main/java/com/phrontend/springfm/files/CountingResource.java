@@ -0,0 +1,104 @@
+package com.phrontend.springfm.files;
+
+import io.micrometer.core.instrument.Counter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Wraps a lazily streamed storage resource so the bytes actually read from it are counted, and each
+ * stream is recorded as a {@link StorageReadEvent} from open to close.
+ */
+class CountingResource extends AbstractResource {
+
+    private final Resource delegate;
+    private final Counter bytesRead;
+
+    CountingResource(Resource delegate, Counter bytesRead) {
+        this.delegate = delegate;
+        this.bytesRead = bytesRead;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        StorageReadEvent event = new StorageReadEvent();
+        event.begin();
+        return new FilterInputStream(delegate.getInputStream()) {
+
+            private long read;
+            private boolean closed;
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    counted(1);
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int n = super.read(buffer, offset, length);
+                if (n > 0) {
+                    counted(n);
+                }
+                return n;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                try {
+                    super.close();
+                } finally {
+                    event.end();
+                    if (event.shouldCommit()) {
+                        event.bytes = read;
+                        event.commit();
+                    }
+                }
+            }
+
+            private void counted(int bytes) {
+                read += bytes;
+                bytesRead.increment(bytes);
+            }
+        };
+    }
+
+    @Override
+    public boolean exists() {
+        return delegate.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return delegate.isReadable();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return delegate.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return delegate.lastModified();
+    }
+
+    @Override
+    public String getFilename() {
+        return delegate.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return delegate.getDescription();
+    }
+}
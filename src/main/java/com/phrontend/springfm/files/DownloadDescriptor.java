@@ -0,0 +1,26 @@
+package com.phrontend.springfm.files;
+
+import java.util.UUID;
+
+/**
+ * The immutable part of a {@link StoredFile} that the download path needs.
+ */
+public record DownloadDescriptor(
+        UUID id,
+        String filename,
+        String contentType,
+        long fileSize,
+        String storagePath,
+        String sha256
+) {
+    public static DownloadDescriptor of(StoredFile file) {
+        return new DownloadDescriptor(
+                file.getId(),
+                file.getFilename(),
+                file.getContentType(),
+                file.getFileSize(),
+                file.getStoragePath(),
+                file.getSha256()
+        );
+    }
+}
@@ -0,0 +1,54 @@
+package com.phrontend.springfm.files;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Read-through cache of {@link DownloadDescriptor}s so that repeated downloads skip the database.
+ * Entries expire after a TTL, which bounds staleness for deletes made on other nodes.
+ */
+@Component
+public class DownloadDescriptorCache {
+
+    private final Cache<UUID, DownloadDescriptor> cache;
+
+    public DownloadDescriptorCache(@Value("${app.files.descriptor-cache.max-entries:100000}") long maxEntries,
+                                   @Value("${app.files.descriptor-cache.ttl:PT10M}") Duration ttl,
+                                   MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "downloadDescriptors");
+    }
+
+    public DownloadDescriptor get(UUID id, Function<UUID, DownloadDescriptor> loader) {
+        return cache.get(id, loader);
+    }
+
+    /**
+     * Evicts the entry now and again once the surrounding transaction commits, so that a download
+     * racing with the delete cannot leave a stale descriptor behind.
+     */
+    public void invalidate(UUID id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+}
@@ -2,6 +2,9 @@ package com.phrontend.springfm.files;
 
 import com.phrontend.springfm.user.UserService;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -20,6 +23,8 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
 @Slf4j
 @RestController
@@ -27,42 +32,45 @@ import org.springframework.web.multipart.MultipartFile;
 @RequiredArgsConstructor
 public class FileController {
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final FileService fileService;
     private final UserService userService;
+    private final FileListingService fileListingService;
+    private final JsonMapper jsonMapper;
 
     @GetMapping("/{id}/download")
     public ResponseEntity<Resource> download(@PathVariable("id") UUID id,
                                              @AuthenticationPrincipal String userId) {
         log.info("Download request: fileId={}, userId={}", id, userId);
 
-        StoredFile file = fileService.requireById(id);
+        DownloadDescriptor file = fileService.requireDownload(id);
         log.info("File found: filename={}, size={}, contentType={}",
-            file.getFilename(), file.getFileSize(), file.getContentType());
+            file.filename(), file.fileSize(), file.contentType());
 
+        // No exists()/isReadable() here: on remote backends each is a request of its own
         Resource resource = fileService.loadAsResource(file);
-        log.info("Resource loaded from storage: exists={}, readable={}",
-            resource.exists(), resource.isReadable());
 
         MediaType mediaType = MediaType.APPLICATION_OCTET_STREAM;
-        if (file.getContentType() != null && !file.getContentType().isBlank()) {
-            mediaType = MediaType.parseMediaType(file.getContentType());
+        if (file.contentType() != null && !file.contentType().isBlank()) {
+            mediaType = MediaType.parseMediaType(file.contentType());
         }
 
         ContentDisposition disposition = ContentDisposition.attachment()
-                .filename(file.getFilename())
+                .filename(file.filename())
                 .build();
 
-        log.info("Sending file: filename={}, mediaType={}", file.getFilename(), mediaType);
+        log.info("Sending file: filename={}, mediaType={}", file.filename(), mediaType);
 
         return ResponseEntity.ok()
                 .contentType(mediaType)
                 .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
-                .contentLength(file.getFileSize())
+                .contentLength(file.fileSize())
                 .body(resource);
     }
 
     @PostMapping("/upload")
-    @PreAuthorize("@authService.currentUser(#userId).canUpload()")
+    @PreAuthorize("@uploadAuthorization.canUpload(authentication)")
     public FileResult upload(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "title", required = false) String title,
@@ -81,15 +89,55 @@ public class FileController {
         StoredFile storedFile = fileService.upload(file, title, category, metadataText, uploadedBy);
 
         // Fetch display name for the uploaded file
-        String displayName = "Unknown User";
-        try {
-            Long userIdLong = Long.parseLong(userId);
-            displayName = userService.requireById(userIdLong).getDisplayName();
-        } catch (Exception e) {
-            log.warn("Could not fetch display name for user {}: {}", userId, e.getMessage());
+        return FileResult.fromEntity(storedFile, displayName(userId));
+    }
+
+    @GetMapping("/mine")
+    public ResponseEntity<FilePageResponse> mine(@RequestParam(value = "cursor", required = false) String cursor,
+                                                 @RequestParam(value = "size", defaultValue = "50") int size,
+                                                 @AuthenticationPrincipal String userId) {
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
+        }
+
+        FileCursor after = cursor == null || cursor.isBlank() ? null : FileCursor.decode(cursor);
+        List<StoredFile> files = fileListingService.listByUploader(userId, after, size);
+
+        String displayName = displayName(userId);
+        List<FileResult> results = files.stream()
+                .map(file -> FileResult.fromEntity(file, displayName))
+                .toList();
+        // A short page means there is nothing left; a full one may be followed by an empty page
+        String nextCursor = files.size() < Math.clamp(size, 1, FileListingService.MAX_PAGE_SIZE)
+                ? null
+                : FileCursor.of(files.getLast()).encode();
+
+        return ResponseEntity.ok(new FilePageResponse(results, nextCursor));
+    }
+
+    /**
+     * All of the caller's files as newline-delimited JSON, streamed from a database cursor so that
+     * memory use does not grow with the number of files.
+     */
+    @GetMapping("/mine/stream")
+    public ResponseEntity<StreamingResponseBody> streamMine(@AuthenticationPrincipal String userId) {
+        if (userId == null) {
+            return ResponseEntity.status(401).build();
         }
 
-        return FileResult.fromEntity(storedFile, displayName);
+        String displayName = displayName(userId);
+        StreamingResponseBody body = outputStream -> {
+            try {
+                fileListingService.forEachByUploader(userId,
+                        file -> writeLine(outputStream, FileResult.fromEntity(file, displayName)));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(NDJSON)
+                .body(body);
     }
 
     @DeleteMapping("/{id}")
@@ -107,4 +155,23 @@ public class FileController {
 
         return ResponseEntity.noContent().build();
     }
+
+    private void writeLine(OutputStream outputStream, FileResult result) {
+        try {
+            outputStream.write(jsonMapper.writeValueAsBytes(result));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String displayName(String userId) {
+        try {
+            Long userIdLong = Long.parseLong(userId);
+            return userService.requireById(userIdLong).getDisplayName();
+        } catch (Exception e) {
+            log.warn("Could not fetch display name for user {}: {}", userId, e.getMessage());
+            return "Unknown User";
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.phrontend.springfm.files;
+
+import jakarta.persistence.EntityManager;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-uploader listings. Paging is keyset based, so deep pages cost the same as the first one and
+ * no COUNT query is needed.
+ */
+@Service
+@RequiredArgsConstructor
+public class FileListingService {
+
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final StoredFileRepository storedFileRepository;
+    private final EntityManager entityManager;
+
+    /**
+     * Returns up to {@code size} files of the uploader that come after {@code cursor}, newest first.
+     * A {@code null} cursor starts at the newest file.
+     */
+    @Transactional(readOnly = true)
+    public List<StoredFile> listByUploader(String uploadedBy, FileCursor cursor, int size) {
+        Limit limit = Limit.of(Math.clamp(size, 1, MAX_PAGE_SIZE));
+        if (cursor == null) {
+            return storedFileRepository.findNewestByUploader(uploadedBy, limit);
+        }
+        return storedFileRepository.findNewestByUploaderAfter(uploadedBy, cursor.uploadedAt(), cursor.id(), limit);
+    }
+
+    /**
+     * Hands every file of the uploader to {@code action}, newest first, while holding at most one
+     * entity in the persistence context.
+     */
+    @Transactional(readOnly = true)
+    public void forEachByUploader(String uploadedBy, Consumer<StoredFile> action) {
+        try (Stream<StoredFile> files = storedFileRepository.streamByUploader(uploadedBy)) {
+            files.forEach(file -> {
+                action.accept(file);
+                entityManager.detach(file);
+            });
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.phrontend.springfm.files;
+
+import java.util.List;
+
+public record FilePageResponse(
+        List<FileResult> results,
+        String nextCursor
+) {
+}
@@ -1,8 +1,15 @@
 package com.phrontend.springfm.files;
 
+import com.phrontend.springfm.config.SearchProperties;
+import com.phrontend.springfm.diagnostics.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -15,13 +22,59 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class FileSearchService {
 
+    private static final int SUGGEST_CANDIDATES = 25;
+
     private final StoredFileRepository storedFileRepository;
+    private final SearchProperties searchProperties;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
 
     @Transactional(readOnly = true)
     public Page<StoredFile> search(String query, List<FileCategory> categories, PageRequest pageRequest) {
-        Specification<StoredFile> specification = Specification.where(StoredFileSpecifications.matchesQuery(query))
+        Specification<StoredFile> specification = Specification.where(matches(query))
                 .and(StoredFileSpecifications.categoryIn(categories));
-        return storedFileRepository.findAll(specification, pageRequest);
+        SearchQueryEvent event = new SearchQueryEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Page<StoredFile> page = storedFileRepository.findAll(specification, pageRequest);
+        RequestTrace.phase("search", sample.stop(timer("search")), page.getNumberOfElements());
+        event.end();
+        if (event.shouldCommit()) {
+            event.mode = searchProperties.mode().name();
+            event.queryLength = query == null ? 0 : query.length();
+            event.categories = String.valueOf(categories);
+            event.page = pageRequest.getPageNumber();
+            event.pageSize = pageRequest.getPageSize();
+            event.rowsReturned = page.getNumberOfElements();
+            event.totalRows = page.getTotalElements();
+            event.commit();
+        }
+        return page;
+    }
+
+    /**
+     * Hands every match to {@code action} in {@code sort} order without materialising the result
+     * set. Each entity is detached once the action returns.
+     */
+    @Transactional(readOnly = true)
+    public void forEachMatch(String query, List<FileCategory> categories, Sort sort, Consumer<StoredFile> action) {
+        Specification<StoredFile> specification = Specification.where(matches(query))
+                .and(StoredFileSpecifications.categoryIn(categories));
+        try (Stream<StoredFile> files = storedFileRepository.streamAll(specification, sort)) {
+            files.forEach(file -> {
+                action.accept(file);
+                entityManager.detach(file);
+            });
+        }
+    }
+
+    /**
+     * Distinct uploaders of the matches, for resolving their display names before streaming.
+     */
+    @Transactional(readOnly = true)
+    public List<String> matchingUploaders(String query, List<FileCategory> categories) {
+        return storedFileRepository.findUploaders(Specification.where(matches(query))
+                .and(StoredFileSpecifications.categoryIn(categories)));
     }
 
     @Transactional(readOnly = true)
@@ -30,15 +83,22 @@ public class FileSearchService {
             return List.of();
         }
 
-        Page<StoredFile> page = storedFileRepository
-                .findByTitleContainingIgnoreCaseOrFilenameContainingIgnoreCase(
-                        query,
-                        query,
-                        PageRequest.of(0, 25, Sort.by(Sort.Direction.DESC, "uploadedAt"))
-                );
+        SuggestQueryEvent event = new SuggestQueryEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<StoredFile> candidates = suggestCandidates(query, categories);
+        RequestTrace.phase("suggest", sample.stop(timer("suggest")), candidates.size());
+        event.end();
+        if (event.shouldCommit()) {
+            event.mode = searchProperties.mode().name();
+            event.queryLength = query.length();
+            event.categories = String.valueOf(categories);
+            event.rowsReturned = candidates.size();
+            event.commit();
+        }
 
         Set<String> suggestions = new LinkedHashSet<>();
-        for (StoredFile file : page.getContent()) {
+        for (StoredFile file : candidates) {
             if (categories != null && !categories.isEmpty() && !categories.contains(file.getCategory())) {
                 continue;
             }
@@ -55,4 +115,36 @@ public class FileSearchService {
 
         return List.copyOf(suggestions);
     }
+
+    private List<StoredFile> suggestCandidates(String query, List<FileCategory> categories) {
+        Sort newestFirst = Sort.by(Sort.Direction.DESC, "uploadedAt", "id");
+        if (isFullText()) {
+            Specification<StoredFile> specification = Specification.where(StoredFileSpecifications.matchesFullText(query))
+                    .and(StoredFileSpecifications.categoryIn(categories));
+            return storedFileRepository.findBy(specification,
+                    q -> q.sortBy(newestFirst).limit(SUGGEST_CANDIDATES).all());
+        }
+        return storedFileRepository
+                .findByTitleContainingIgnoreCaseOrFilenameContainingIgnoreCase(
+                        query,
+                        query,
+                        PageRequest.of(0, SUGGEST_CANDIDATES, newestFirst)
+                )
+                .getContent();
+    }
+
+    private Timer timer(String operation) {
+        return meterRegistry.timer("springfm.search", "operation", operation,
+                "mode", searchProperties.mode().name());
+    }
+
+    private Specification<StoredFile> matches(String query) {
+        return isFullText()
+                ? StoredFileSpecifications.matchesFullText(query)
+                : StoredFileSpecifications.matchesQuery(query);
+    }
+
+    private boolean isFullText() {
+        return searchProperties.mode() == SearchProperties.Mode.FULLTEXT;
+    }
 }
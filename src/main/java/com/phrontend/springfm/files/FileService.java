@@ -1,13 +1,21 @@
 package com.phrontend.springfm.files;
 
+import com.phrontend.springfm.diagnostics.RequestTrace;
+import com.phrontend.springfm.storage.ByteBufferResource;
+import com.phrontend.springfm.storage.HotFileCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
@@ -21,6 +29,9 @@ public class FileService {
 
     private final StoredFileRepository storedFileRepository;
     private final StorageService storageService;
+    private final HotFileCache hotFileCache;
+    private final DownloadDescriptorCache downloadDescriptorCache;
+    private final MeterRegistry meterRegistry;
 
     @Transactional(readOnly = true)
     public StoredFile requireById(UUID id) {
@@ -28,9 +39,41 @@ public class FileService {
                 .orElseThrow(() -> new IllegalArgumentException("File not found"));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Resolves the download metadata for a file, normally from cache. Deliberately not transactional:
+     * a cache hit must not check out a database connection.
+     */
+    public DownloadDescriptor requireDownload(UUID id) {
+        return downloadDescriptorCache.get(id, key -> DownloadDescriptor.of(storedFileRepository.findById(key)
+                .orElseThrow(() -> new IllegalArgumentException("File not found"))));
+    }
+
     public Resource loadAsResource(StoredFile file) {
-        return storageService.loadAsResource(file.getStoragePath());
+        return loadAsResource(DownloadDescriptor.of(file));
+    }
+
+    public Resource loadAsResource(DownloadDescriptor file) {
+        String sha256 = file.sha256();
+        if (sha256 == null || !hotFileCache.accepts(file.fileSize())) {
+            return storageService.loadAsResource(file.storagePath());
+        }
+
+        ByteBuffer cached = hotFileCache.get(sha256);
+        if (cached != null) {
+            return new ByteBufferResource(cached, file.filename());
+        }
+
+        Resource resource = storageService.loadAsResource(file.storagePath());
+        if (!hotFileCache.wouldAdmit(sha256, file.fileSize())) {
+            return resource;
+        }
+        try {
+            byte[] content = resource.getContentAsByteArray();
+            hotFileCache.put(sha256, content);
+            return new ByteArrayResource(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     @Transactional
@@ -51,10 +94,15 @@ public class FileService {
 
         // Delete from database
         storedFileRepository.delete(file);
+        downloadDescriptorCache.invalidate(id);
         log.info("Deleted file from database: id={}", id);
     }
 
-    @Transactional
+    /**
+     * Reads, hashes and stores the file outside any transaction, so no connection is checked out during
+     * disk I/O; only the insert is transactional (through the repository). If the insert fails the
+     * stored blob is deleted again.
+     */
     public StoredFile upload(MultipartFile file, String title, FileCategory category, String metadataText, String uploadedBy) throws IOException {
         log.info("Uploading file: filename={}, size={}, contentType={}, uploadedBy={}",
             file.getOriginalFilename(), file.getSize(), file.getContentType(), uploadedBy);
@@ -64,19 +112,25 @@ public class FileService {
             filename = "unnamed-file";
         }
 
+        // Determine category if not provided
+        if (category == null) {
+            category = detectCategory(file.getContentType(), filename);
+        }
+
+        UploadPhase read = beginPhase();
         byte[] fileBytes = file.getBytes();
+        read.end("read", fileBytes.length, category);
 
         // Calculate SHA256 hash
+        UploadPhase hash = beginPhase();
         String sha256 = calculateSha256(fileBytes);
+        hash.end("hash", fileBytes.length, category);
         log.info("Calculated SHA256: {}", sha256);
 
         // Store file
+        UploadPhase store = beginPhase();
         String storagePath = storageService.store(fileBytes, filename);
-
-        // Determine category if not provided
-        if (category == null) {
-            category = detectCategory(file.getContentType(), filename);
-        }
+        store.end("store", fileBytes.length, category);
 
         // Use filename as title if not provided
         if (title == null || title.isBlank()) {
@@ -102,13 +156,63 @@ public class FileService {
                 .sha256(sha256)
                 .build();
 
-        storedFile = storedFileRepository.save(storedFile);
-        log.info("File uploaded successfully: id={}, storagePath={}, sha256={}", storedFile.getId(), storagePath, sha256);
+        UploadPhase insert = beginPhase();
+        StoredFile saved;
+        try {
+            // Flush so the stage times the INSERT itself, not just handing the entity to the session
+            saved = storedFileRepository.saveAndFlush(storedFile);
+        } catch (RuntimeException e) {
+            deleteOrphan(storagePath, e);
+            throw e;
+        }
+        insert.end("insert", 0, category);
+        log.info("File uploaded successfully: id={}, storagePath={}, sha256={}", saved.getId(), storagePath, sha256);
+
+        return saved;
+    }
 
-        return storedFile;
+    private void deleteOrphan(String storagePath, RuntimeException cause) {
+        try {
+            storageService.delete(storagePath);
+            log.info("Deleted blob {} after its insert failed", storagePath);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not delete blob {} after its insert failed", storagePath, e);
+            cause.addSuppressed(e);
+        }
+    }
+
+    private UploadPhase beginPhase() {
+        return new UploadPhase(Timer.start(meterRegistry));
+    }
+
+    /**
+     * Times one upload phase into the {@code springfm.upload.stage} timer and, while a flight recording
+     * is running, an {@link UploadPhaseEvent}.
+     */
+    private final class UploadPhase {
+
+        private final UploadPhaseEvent event = new UploadPhaseEvent();
+        private final Timer.Sample sample;
+
+        private UploadPhase(Timer.Sample sample) {
+            this.sample = sample;
+            event.begin();
+        }
+
+        void end(String phase, long bytes, FileCategory category) {
+            long nanos = sample.stop(meterRegistry.timer("springfm.upload.stage", "stage", phase));
+            RequestTrace.phase("upload." + phase, nanos, -1);
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase;
+                event.bytes = bytes;
+                event.category = category.name();
+                event.commit();
+            }
+        }
     }
 
-    private String calculateSha256(byte[] data) {
+    static String calculateSha256(byte[] data) {
         try {
             MessageDigest digest = MessageDigest.getInstance("SHA-256");
             byte[] hash = digest.digest(data);
@@ -118,7 +222,7 @@ public class FileService {
         }
     }
 
-    private String generateMetadata(String filename, String contentType, long fileSize, FileCategory category) {
+    static String generateMetadata(String filename, String contentType, long fileSize, FileCategory category) {
         StringBuilder metadata = new StringBuilder();
 
         // Add filename without extension
@@ -157,7 +261,7 @@ public class FileService {
         return metadata.toString();
     }
 
-    private FileCategory detectCategory(String contentType, String filename) {
+    static FileCategory detectCategory(String contentType, String filename) {
         if (contentType == null) {
             return FileCategory.OTHER;
         }
@@ -10,10 +10,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -32,6 +36,7 @@ public class SearchController {
 
     private final FileSearchService fileSearchService;
     private final UserService userService;
+    private final SearchExportService searchExportService;
 
     @GetMapping
     public SearchResponse search(@RequestParam(value = "q", required = false) String query,
@@ -46,11 +51,7 @@ public class SearchController {
         // Convert 1-based page (from frontend) to 0-based page (for Spring Data)
         int zeroBasedPage = Math.max(0, page - 1);
 
-        String mappedSortField = SORT_FIELDS.getOrDefault(sortField, "uploadedAt");
-        Sort.Direction direction = sortDir == null || sortDir.toLowerCase(Locale.ROOT).startsWith("asc")
-                ? Sort.Direction.ASC
-                : Sort.Direction.DESC;
-        PageRequest pageRequest = PageRequest.of(zeroBasedPage, size, Sort.by(direction, mappedSortField));
+        PageRequest pageRequest = PageRequest.of(zeroBasedPage, size, sortOf(sortField, sortDir));
 
         Page<StoredFile> results = fileSearchService.search(query, categories, pageRequest);
         log.info("Search results: found {} total, returning page {} with {} results",
@@ -80,9 +81,45 @@ public class SearchController {
         return new SearchResponse(mapped, results.getTotalElements(), results.getNumber() + 1, results.getSize());
     }
 
+    /**
+     * Streams every result of a search as NDJSON or CSV. Takes the same filters and sort as
+     * {@link #search}, without paging. Unlike search it requires authentication, since one call can
+     * scan the whole table.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "q", required = false) String query,
+                                                        @RequestParam(value = "categories", required = false) List<FileCategory> categories,
+                                                        @RequestParam(value = "sortField", defaultValue = "uploadedAt") String sortField,
+                                                        @RequestParam(value = "sortDir", defaultValue = "desc") String sortDir,
+                                                        @RequestParam(value = "format", defaultValue = "ndjson") String format) {
+        SearchExportService.Format exportFormat = SearchExportService.Format.parse(format);
+        Sort sort = sortOf(sortField, sortDir);
+        log.info("Export request: query='{}', categories={}, sort={}, format={}", query, categories, sort, exportFormat);
+
+        ContentDisposition disposition = ContentDisposition.attachment()
+                .filename("files." + exportFormat.extension())
+                .build();
+        StreamingResponseBody body = outputStream ->
+                searchExportService.export(query, categories, sort, exportFormat, outputStream);
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+                .body(body);
+    }
+
     @GetMapping("/suggest")
     public SearchSuggestionResponse suggest(@RequestParam(value = "q", required = false) String query,
                                             @RequestParam(value = "categories", required = false) List<FileCategory> categories) {
         return new SearchSuggestionResponse(fileSearchService.suggest(query, categories));
     }
+
+    private static Sort sortOf(String sortField, String sortDir) {
+        String mappedSortField = SORT_FIELDS.getOrDefault(sortField, "uploadedAt");
+        Sort.Direction direction = sortDir == null || sortDir.toLowerCase(Locale.ROOT).startsWith("asc")
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+        // id breaks ties so that paging is stable and matches the (field, id) indexes
+        return Sort.by(direction, mappedSortField).and(Sort.by(direction, "id"));
+    }
 }
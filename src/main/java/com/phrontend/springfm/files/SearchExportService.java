@@ -0,0 +1,150 @@
+package com.phrontend.springfm.files;
+
+import com.phrontend.springfm.user.UserService;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Writes every search match as NDJSON or CSV. Rows are read from a database cursor and flushed in
+ * small batches, so heap use does not depend on the number of matches (only on the number of
+ * distinct uploaders) and the first rows reach the client before the query has finished.
+ */
+@Service
+@RequiredArgsConstructor
+public class SearchExportService {
+
+    static final int BATCH_SIZE = 200;
+
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private static final String CSV_HEADER =
+            "id,title,filename,category,uploadedAt,uploadedBy,uploadedByUserId,fileSize,metadataText,downloadUrl";
+
+    private final FileSearchService fileSearchService;
+    private final UserService userService;
+    private final JsonMapper jsonMapper;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = MediaType.parseMediaType(mediaType);
+            this.extension = extension;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            try {
+                return valueOf(format.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException | NullPointerException e) {
+                throw new IllegalArgumentException("Unsupported export format");
+            }
+        }
+    }
+
+    /**
+     * Display names are resolved up front, one query per {@link #BATCH_SIZE} uploaders, before the
+     * cursor is opened: a statement on the connection while the cursor is open would make the driver
+     * buffer the rest of the result. Everything runs in one transaction on one connection. Files from
+     * uploaders that first appear after the lookup are written without a display name.
+     */
+    @Transactional(readOnly = true)
+    public void export(String query, List<FileCategory> categories, Sort sort, Format format, OutputStream outputStream)
+            throws IOException {
+        Map<String, String> displayNames = displayNames(fileSearchService.matchingUploaders(query, categories));
+        if (format == Format.CSV) {
+            outputStream.write((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        int[] unflushed = new int[1];
+        try {
+            fileSearchService.forEachMatch(query, categories, sort, file -> {
+                FileResult result = FileResult.fromEntity(file, displayNames.get(file.getUploadedBy()));
+                try {
+                    outputStream.write(format == Format.CSV ? csvLine(result) : jsonLine(result));
+                    if (++unflushed[0] >= BATCH_SIZE) {
+                        outputStream.flush();
+                        unflushed[0] = 0;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        outputStream.flush();
+    }
+
+    private Map<String, String> displayNames(List<String> uploaders) {
+        Map<String, String> displayNames = new HashMap<>();
+        for (int from = 0; from < uploaders.size(); from += BATCH_SIZE) {
+            displayNames.putAll(userService.displayNames(
+                    uploaders.subList(from, Math.min(uploaders.size(), from + BATCH_SIZE))));
+        }
+        return displayNames;
+    }
+
+    private byte[] jsonLine(FileResult result) {
+        byte[] json = jsonMapper.writeValueAsBytes(result);
+        byte[] line = new byte[json.length + 1];
+        System.arraycopy(json, 0, line, 0, json.length);
+        line[json.length] = '\n';
+        return line;
+    }
+
+    static byte[] csvLine(FileResult result) {
+        String line = String.join(",",
+                csv(result.id()),
+                csv(result.title()),
+                csv(result.filename()),
+                csv(result.category() == null ? null : result.category().name()),
+                csv(result.uploadedAt() == null ? null : result.uploadedAt().toString()),
+                csv(result.uploadedBy()),
+                csv(result.uploadedByUserId()),
+                String.valueOf(result.fileSize()),
+                csv(result.metadataText()),
+                csv(result.downloadUrl())
+        ) + "\n";
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Quotes a cell where needed. Cells a spreadsheet would read as a formula get a leading
+     * {@code '} so that user-supplied titles and filenames are shown as text, not evaluated.
+     */
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
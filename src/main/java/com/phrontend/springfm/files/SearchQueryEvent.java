@@ -0,0 +1,39 @@
+package com.phrontend.springfm.files;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(SearchQueryEvent.NAME)
+@Label("Search Query")
+@Description("A paged search, from building the specification to the loaded page and its count")
+@Category({"SpringFM", "Search"})
+@StackTrace(false)
+class SearchQueryEvent extends Event {
+
+    static final String NAME = "springfm.SearchQuery";
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Query Length")
+    int queryLength;
+
+    @Label("Categories")
+    String categories;
+
+    @Label("Page")
+    int page;
+
+    @Label("Page Size")
+    int pageSize;
+
+    @Label("Rows Returned")
+    int rowsReturned;
+
+    @Label("Total Rows")
+    long totalRows;
+}
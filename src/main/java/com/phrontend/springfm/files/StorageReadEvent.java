@@ -0,0 +1,27 @@
+package com.phrontend.springfm.files;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(StorageReadEvent.NAME)
+@Label("Storage Read")
+@Description("Reading a blob; for streamed blobs this spans opening the stream to closing it, so it includes "
+        + "the time spent writing the response")
+@Category({"SpringFM", "Storage"})
+@StackTrace(false)
+class StorageReadEvent extends Event {
+
+    static final String NAME = "springfm.StorageRead";
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Packed")
+    boolean packed;
+}
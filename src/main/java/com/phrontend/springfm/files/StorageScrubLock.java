@@ -0,0 +1,67 @@
+package com.phrontend.springfm.files;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps nodes that share the database and storage from scrubbing at the same time: a MariaDB named
+ * lock held on its own connection for the whole run. The server drops the lock with the connection
+ * if a node dies mid-run, so there is no lease to expire. Costs one pooled connection per running
+ * scrub.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StorageScrubLock {
+
+    static final String LOCK_NAME = "springfm.storage-scrub";
+
+    private final DataSource dataSource;
+
+    /**
+     * Runs {@code task} while holding the lock.
+     *
+     * @return the task's result, or empty if another node holds the lock
+     */
+    public <T> Optional<T> runExclusively(Supplier<T> task) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!call(connection, "SELECT GET_LOCK(?, 0)")) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(task.get());
+            } finally {
+                release(connection);
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not take the storage scrub lock", e);
+        }
+    }
+
+    private static void release(Connection connection) {
+        try {
+            call(connection, "SELECT RELEASE_LOCK(?)");
+        } catch (SQLException e) {
+            // A connection that cannot run RELEASE_LOCK is broken, and the server drops the lock with it
+            log.warn("Could not release the storage scrub lock", e);
+        }
+    }
+
+    private static boolean call(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, LOCK_NAME);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getInt(1) == 1;
+            }
+        }
+    }
+}
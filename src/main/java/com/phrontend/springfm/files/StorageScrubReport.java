@@ -0,0 +1,32 @@
+package com.phrontend.springfm.files;
+
+import com.phrontend.springfm.config.StorageProperties;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outcome of one {@link StorageScrubber} run, served at {@code /actuator/storagescrub}.
+ *
+ * @param orphans        blobs older than the grace period that no row points to
+ * @param missing        rows whose blob does not exist
+ * @param repairsHeld    true when there were more missing rows than {@code maxRepairs}, which looks more
+ *                       like an unmounted disk than lost files, so no rows were deleted
+ * @param orphanSamples  up to {@link StorageScrubber#MAX_SAMPLES} orphaned storage paths
+ * @param missingSamples up to {@link StorageScrubber#MAX_SAMPLES} storage paths of rows with missing blobs
+ */
+public record StorageScrubReport(
+        Instant startedAt,
+        Duration duration,
+        StorageProperties.ScrubMode mode,
+        long rowsChecked,
+        long blobsWalked,
+        long orphans,
+        long missing,
+        long orphansDeleted,
+        long rowsDeleted,
+        boolean repairsHeld,
+        List<String> orphanSamples,
+        List<String> missingSamples
+) {
+}
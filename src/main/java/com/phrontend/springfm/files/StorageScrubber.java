@@ -0,0 +1,274 @@
+package com.phrontend.springfm.files;
+
+import com.phrontend.springfm.config.StorageProperties;
+import com.phrontend.springfm.storage.StorageBackend;
+import com.phrontend.springfm.storage.StorageTreeWalker;
+import com.phrontend.springfm.util.BloomFilter;
+import com.phrontend.springfm.util.TokenBucket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+/**
+ * Finds what crashes between the storage and database halves of an upload or delete leave behind:
+ * blobs no row points to (orphans) and rows whose blob is gone (missing).
+ * <p>
+ * A run first reads {@code stored_files} in id order in short keyset batches, checking that each
+ * blob exists and adding its path to a Bloom filter. It then walks the local storage roots in
+ * parallel with {@link StorageTreeWalker}; a blob the filter has never seen is certainly unreferenced.
+ * Orphan candidates are confirmed against the database before they are reported, because rows may
+ * have been inserted since. Blobs younger than the grace period are skipped as uploads in flight.
+ * Both passes share one token bucket, so the scrub costs at most {@code filesPerSecond} file system
+ * operations however large the store is.
+ * <p>
+ * Pack segments keep their own index and are not walked; S3 storage is checked for missing blobs only.
+ * <p>
+ * When enabled, a run is scheduled from {@code app.storage.scrub.initial-delay} and {@code interval}.
+ * Every node may enable it: {@link StorageScrubLock} lets one node at a time run, and the others skip
+ * that round.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "storagescrub")
+public class StorageScrubber implements SchedulingConfigurer {
+
+    static final int MAX_SAMPLES = 100;
+    static final int BATCH_SIZE = 1000;
+
+    private static final double BLOOM_FALSE_POSITIVE_RATE = 0.001;
+
+    private final StoredFileRepository storedFileRepository;
+    private final StorageService storageService;
+    private final StorageBackend storageBackend;
+    private final DownloadDescriptorCache downloadDescriptorCache;
+    private final StorageScrubLock lock;
+    private final StorageProperties.Scrub settings;
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicReference<StorageScrubReport> lastReport = new AtomicReference<>();
+
+    public StorageScrubber(StoredFileRepository storedFileRepository,
+                           StorageService storageService,
+                           StorageBackend storageBackend,
+                           DownloadDescriptorCache downloadDescriptorCache,
+                           StorageScrubLock lock,
+                           StorageProperties storageProperties,
+                           MeterRegistry meterRegistry) {
+        this.storedFileRepository = storedFileRepository;
+        this.storageService = storageService;
+        this.storageBackend = storageBackend;
+        this.downloadDescriptorCache = downloadDescriptorCache;
+        this.lock = lock;
+        this.settings = storageProperties.scrub();
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("springfm.storage.scrub.orphans", lastReport, report -> report.get() == null ? 0 : report.get().orphans())
+                .description("Unreferenced blobs found by the last storage scrub")
+                .register(meterRegistry);
+        Gauge.builder("springfm.storage.scrub.missing", lastReport, report -> report.get() == null ? 0 : report.get().missing())
+                .description("Rows with missing blobs found by the last storage scrub")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (settings.enabled()) {
+            registrar.addFixedDelayTask(new FixedDelayTask(this::scrub, settings.interval(), settings.initialDelay()));
+        }
+    }
+
+    @ReadOperation
+    public StorageScrubReport lastReport() {
+        return lastReport.get();
+    }
+
+    /**
+     * Runs one scrub unless one is already running here or on another node, in which case the
+     * previous report of this node is returned.
+     */
+    public StorageScrubReport scrub() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Storage scrub already running");
+            return lastReport.get();
+        }
+        try {
+            return lock.runExclusively(this::timedRun).orElseGet(() -> {
+                log.info("Storage scrub running on another node");
+                return lastReport.get();
+            });
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private StorageScrubReport timedRun() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        StorageScrubReport report;
+        try {
+            report = run();
+        } finally {
+            sample.stop(meterRegistry.timer("springfm.storage.scrub"));
+        }
+        lastReport.set(report);
+        log.info("Storage scrub: {} rows, {} blobs, {} orphans ({} deleted), {} missing ({} rows deleted){}",
+                report.rowsChecked(), report.blobsWalked(), report.orphans(), report.orphansDeleted(),
+                report.missing(), report.rowsDeleted(), report.repairsHeld() ? ", repairs held" : "");
+        return report;
+    }
+
+    private StorageScrubReport run() {
+        Instant startedAt = Instant.now();
+        TokenBucket bucket = new TokenBucket(Math.max(1, (long) settings.filesPerSecond()), settings.filesPerSecond());
+        Runnable pace = () -> pace(bucket);
+
+        // Rows: every referenced path into the filter, and every blob checked for existence
+        BloomFilter referenced = BloomFilter.create(storedFileRepository.count() + BATCH_SIZE, BLOOM_FALSE_POSITIVE_RATE);
+        List<StoredBlobRef> missing = new ArrayList<>();
+        long missingCount = 0;
+        long rowsChecked = 0;
+        List<StoredBlobRef> batch = storedFileRepository.findBlobRefs(Limit.of(BATCH_SIZE));
+        while (!batch.isEmpty()) {
+            for (StoredBlobRef ref : batch) {
+                referenced.add(ref.storagePath());
+                pace.run();
+                if (!blobExists(ref.storagePath())) {
+                    missingCount++;
+                    if (missing.size() < settings.maxRepairs()) {
+                        missing.add(ref);
+                    }
+                }
+            }
+            rowsChecked += batch.size();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+            batch = storedFileRepository.findBlobRefsAfter(batch.getLast().id(), Limit.of(BATCH_SIZE));
+        }
+        // A concurrent delete removes the blob before the row; those rows are gone by now
+        List<StoredBlobRef> stillMissing = missing.stream()
+                .filter(ref -> storedFileRepository.existsById(ref.id()))
+                .toList();
+        missingCount -= missing.size() - stillMissing.size();
+
+        // Blobs: walk the fan-out directories in parallel and keep the old ones the filter has never seen
+        Instant cutoff = startedAt.minus(settings.gracePeriod());
+        int candidateLimit = Math.max(settings.maxRepairs(), MAX_SAMPLES);
+        Queue<String> candidates = new ConcurrentLinkedQueue<>();
+        AtomicLong candidateCount = new AtomicLong();
+        AtomicLong blobsWalked = new AtomicLong();
+        try (ForkJoinPool pool = new ForkJoinPool(settings.parallelism())) {
+            StorageTreeWalker walker = new StorageTreeWalker(pool, pace);
+            for (Path root : storageBackend.localRoots()) {
+                walker.walk(root, blob -> {
+                    blobsWalked.incrementAndGet();
+                    if (!referenced.mightContain(blob.key()) && blob.lastModified().isBefore(cutoff)
+                            && candidateCount.incrementAndGet() <= candidateLimit) {
+                        candidates.add(blob.key());
+                    }
+                });
+            }
+        }
+        List<String> orphans = confirmOrphans(candidates);
+        long orphanCount = candidateCount.get() - (candidates.size() - orphans.size());
+
+        long orphansDeleted = 0;
+        long rowsDeleted = 0;
+        boolean repairsHeld = false;
+        if (settings.mode() == StorageProperties.ScrubMode.REPAIR) {
+            orphansDeleted = deleteOrphans(orphans);
+            if (missingCount > settings.maxRepairs()) {
+                repairsHeld = true;
+                log.error("Storage scrub found {} rows without blobs, more than max-repairs ({}); not deleting any. "
+                        + "Check that every storage root is mounted.", missingCount, settings.maxRepairs());
+            } else {
+                rowsDeleted = deleteRows(stillMissing);
+            }
+        }
+
+        return new StorageScrubReport(startedAt, Duration.between(startedAt, Instant.now()), settings.mode(),
+                rowsChecked, blobsWalked.get(), orphanCount, missingCount, orphansDeleted, rowsDeleted, repairsHeld,
+                orphans.stream().limit(MAX_SAMPLES).toList(),
+                stillMissing.stream().limit(MAX_SAMPLES).map(StoredBlobRef::storagePath).toList());
+    }
+
+    private List<String> confirmOrphans(Queue<String> candidates) {
+        List<String> all = new ArrayList<>(candidates);
+        List<String> confirmed = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += BATCH_SIZE) {
+            List<String> chunk = all.subList(from, Math.min(all.size(), from + BATCH_SIZE));
+            Set<String> referenced = new HashSet<>(storedFileRepository.findExistingStoragePaths(chunk));
+            chunk.stream().filter(path -> !referenced.contains(path)).forEach(confirmed::add);
+        }
+        return confirmed;
+    }
+
+    private long deleteOrphans(List<String> orphans) {
+        long deleted = 0;
+        for (String storagePath : orphans.subList(0, Math.min(orphans.size(), settings.maxRepairs()))) {
+            try {
+                storageService.delete(storagePath);
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Could not delete orphaned blob {}", storagePath, e);
+            }
+        }
+        meterRegistry.counter("springfm.storage.scrub.repaired", "kind", "orphan").increment(deleted);
+        return deleted;
+    }
+
+    private long deleteRows(List<StoredBlobRef> missing) {
+        long deleted = 0;
+        for (StoredBlobRef ref : missing) {
+            if (blobExists(ref.storagePath())) {
+                continue;
+            }
+            storedFileRepository.deleteById(ref.id());
+            downloadDescriptorCache.invalidate(ref.id());
+            log.info("Deleted file {} whose blob {} is missing", ref.id(), ref.storagePath());
+            deleted++;
+        }
+        meterRegistry.counter("springfm.storage.scrub.repaired", "kind", "row").increment(deleted);
+        return deleted;
+    }
+
+    private boolean blobExists(String storagePath) {
+        try {
+            return storageService.exists(storagePath);
+        } catch (IllegalArgumentException e) {
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not check " + storagePath, e);
+        }
+    }
+
+    private static void pace(TokenBucket bucket) {
+        long waitNanos;
+        while ((waitNanos = bucket.tryAcquire(1)) > 0) {
+            LockSupport.parkNanos(waitNanos);
+        }
+    }
+}
@@ -1,66 +1,172 @@
 package com.phrontend.springfm.files;
 
 import com.phrontend.springfm.config.StorageProperties;
+import com.phrontend.springfm.diagnostics.RequestTrace;
+import com.phrontend.springfm.storage.PackStore;
+import com.phrontend.springfm.storage.StorageBackend;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
-import org.springframework.core.io.FileSystemResource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class StorageService {
 
     private final StorageProperties storageProperties;
+    private final StorageBackend storageBackend;
+    private final MeterRegistry meterRegistry;
     private Path rootPath;
+    private PackStore packStore;
 
     @PostConstruct
     public void init() throws IOException {
         rootPath = Paths.get(storageProperties.root()).toAbsolutePath().normalize();
         Files.createDirectories(rootPath);
+
+        StorageProperties.Pack pack = storageProperties.pack();
+        if (pack.enabled()) {
+            // Segments live under the local root; with any other backend small uploads would end up
+            // on this node's disk instead of the shared store
+            if (storageProperties.backend() != StorageProperties.Backend.LOCAL) {
+                throw new IllegalStateException("app.storage.pack.enabled requires the LOCAL storage backend");
+            }
+            packStore = new PackStore(rootPath.resolve("pack"), pack.segmentSize().toBytes());
+        }
     }
 
+    @PreDestroy
+    public void close() throws IOException {
+        if (packStore != null) {
+            packStore.close();
+        }
+    }
+
+    /**
+     * Packed blobs are read here; other blobs are streamed later by the caller, so the load timer only
+     * covers resolving them and their bytes and read time are recorded as they are streamed.
+     */
     public Resource loadAsResource(String storagePath) {
-        Path resolved = resolve(storagePath);
-        return new FileSystemResource(resolved);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (PackStore.isPackPath(storagePath)) {
+                StorageReadEvent event = new StorageReadEvent();
+                event.begin();
+                byte[] content = readPacked(storagePath);
+                event.end();
+                if (event.shouldCommit()) {
+                    event.bytes = content.length;
+                    event.packed = true;
+                    event.commit();
+                }
+                bytes("load").increment(content.length);
+                return new ByteArrayResource(content);
+            }
+            return new CountingResource(storageBackend.resource(storagePath), bytes("load"));
+        } finally {
+            RequestTrace.phase("storage.load", sample.stop(timer("load")), -1);
+        }
     }
 
     public String store(byte[] content, String filename) throws IOException {
-        String storagePath = generateStoragePath(filename);
-        Path targetPath = rootPath.resolve(storagePath);
-        Files.createDirectories(targetPath.getParent());
-        Files.write(targetPath, content);
-        return storagePath;
+        StorageWriteEvent event = new StorageWriteEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean packed = packStore != null && content.length <= storageProperties.pack().maxBlobSize().toBytes();
+        try {
+            String storagePath;
+            if (packed) {
+                storagePath = packStore.put(content);
+            } else {
+                storagePath = generateStoragePath(filename);
+                storageBackend.put(storagePath, new ByteArrayInputStream(content), content.length);
+            }
+            bytes("store").increment(content.length);
+            return storagePath;
+        } finally {
+            RequestTrace.phase("storage.store", sample.stop(timer("store")), -1);
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = content.length;
+                event.packed = packed;
+                event.commit();
+            }
+        }
     }
 
     public void delete(String storagePath) throws IOException {
-        Path resolved = rootPath.resolve(storagePath).normalize();
-        if (!resolved.startsWith(rootPath)) {
-            throw new IllegalArgumentException("Invalid storage path");
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            if (PackStore.isPackPath(storagePath)) {
+                requirePackStore().delete(storagePath);
+                return;
+            }
+            storageBackend.delete(storagePath);
+        } finally {
+            RequestTrace.phase("storage.delete", sample.stop(timer("delete")), -1);
         }
-        if (Files.exists(resolved)) {
-            Files.delete(resolved);
+    }
+
+    /**
+     * Whether the blob is still there, checked against the pack index or the storage backend.
+     */
+    public boolean exists(String storagePath) throws IOException {
+        if (PackStore.isPackPath(storagePath)) {
+            return packStore != null && packStore.exists(storagePath);
         }
+        return storageBackend.exists(storagePath);
     }
 
-    private String generateStoragePath(String filename) {
-        String uuid = UUID.randomUUID().toString();
-        return uuid.substring(0, 2) + "/" + uuid.substring(2, 4) + "/" + uuid + "-" + filename;
+    @Scheduled(fixedDelayString = "${app.storage.pack.compaction-interval:PT10M}")
+    public void compactPacks() throws IOException {
+        if (packStore == null) {
+            return;
+        }
+        int reclaimed = packStore.compact(storageProperties.pack().compactionThreshold());
+        if (reclaimed > 0) {
+            log.info("Pack compaction reclaimed {} segments", reclaimed);
+        }
     }
 
-    private Path resolve(String storagePath) {
-        Path resolved = rootPath.resolve(storagePath).normalize();
-        if (!resolved.startsWith(rootPath)) {
-            throw new IllegalArgumentException("Invalid storage path");
+    private byte[] readPacked(String storagePath) {
+        try {
+            return requirePackStore().read(storagePath);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read packed file", e);
         }
-        if (!Files.exists(resolved)) {
-            throw new IllegalArgumentException("File not found");
+    }
+
+    private Timer timer(String operation) {
+        return meterRegistry.timer("springfm.storage", "operation", operation);
+    }
+
+    private Counter bytes(String operation) {
+        return meterRegistry.counter("springfm.storage.bytes", "operation", operation);
+    }
+
+    private PackStore requirePackStore() {
+        if (packStore == null) {
+            throw new IllegalStateException("Pack storage is not enabled");
         }
-        return resolved;
+        return packStore;
+    }
+
+    private String generateStoragePath(String filename) {
+        String uuid = UUID.randomUUID().toString();
+        return uuid.substring(0, 2) + "/" + uuid.substring(2, 4) + "/" + uuid + "-" + filename;
     }
 }
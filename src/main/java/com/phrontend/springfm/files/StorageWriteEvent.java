@@ -0,0 +1,24 @@
+package com.phrontend.springfm.files;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(StorageWriteEvent.NAME)
+@Label("Storage Write")
+@Category({"SpringFM", "Storage"})
+@StackTrace(false)
+class StorageWriteEvent extends Event {
+
+    static final String NAME = "springfm.StorageWrite";
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Packed")
+    boolean packed;
+}
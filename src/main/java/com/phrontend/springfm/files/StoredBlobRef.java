@@ -0,0 +1,9 @@
+package com.phrontend.springfm.files;
+
+import java.util.UUID;
+
+/**
+ * The part of a {@link StoredFile} row the storage scrubber needs.
+ */
+public record StoredBlobRef(UUID id, String storagePath) {
+}
@@ -1,13 +1,72 @@
 package com.phrontend.springfm.files;
 
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface StoredFileRepository extends JpaRepository<StoredFile, UUID>, JpaSpecificationExecutor<StoredFile> {
+public interface StoredFileRepository extends JpaRepository<StoredFile, UUID>, JpaSpecificationExecutor<StoredFile>,
+        StoredFileStreamRepository {
     Page<StoredFile> findByTitleContainingIgnoreCaseOrFilenameContainingIgnoreCase(String title,
                                                                                    String filename,
                                                                                    Pageable pageable);
+
+    // The uploader queries below read idx_stored_files_uploaded_by_uploaded_at in index order.
+
+    @Query("""
+            select f from StoredFile f
+            where f.uploadedBy = :uploadedBy
+            order by f.uploadedAt desc, f.id desc
+            """)
+    List<StoredFile> findNewestByUploader(@Param("uploadedBy") String uploadedBy, Limit limit);
+
+    @Query("""
+            select f from StoredFile f
+            where f.uploadedBy = :uploadedBy
+              and (f.uploadedAt < :uploadedAt or (f.uploadedAt = :uploadedAt and f.id < :id))
+            order by f.uploadedAt desc, f.id desc
+            """)
+    List<StoredFile> findNewestByUploaderAfter(@Param("uploadedBy") String uploadedBy,
+                                               @Param("uploadedAt") Instant uploadedAt,
+                                               @Param("id") UUID id,
+                                               Limit limit);
+
+    /**
+     * Streams all files of one uploader through a server-side cursor. Must be consumed inside a
+     * transaction; callers should detach each entity once written.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            select f from StoredFile f
+            where f.uploadedBy = :uploadedBy
+            order by f.uploadedAt desc, f.id desc
+            """)
+    Stream<StoredFile> streamByUploader(@Param("uploadedBy") String uploadedBy);
+
+    // Keyset batches in primary key order for the storage scrubber; each batch is a short query, so
+    // no connection is held for the length of a scrub.
+
+    @Query("select new com.phrontend.springfm.files.StoredBlobRef(f.id, f.storagePath) from StoredFile f order by f.id")
+    List<StoredBlobRef> findBlobRefs(Limit limit);
+
+    @Query("""
+            select new com.phrontend.springfm.files.StoredBlobRef(f.id, f.storagePath) from StoredFile f
+            where f.id > :id
+            order by f.id
+            """)
+    List<StoredBlobRef> findBlobRefsAfter(@Param("id") UUID id, Limit limit);
+
+    @Query("select f.storagePath from StoredFile f where f.storagePath in :storagePaths")
+    List<String> findExistingStoragePaths(@Param("storagePaths") Collection<String> storagePaths);
 }
@@ -2,10 +2,19 @@ package com.phrontend.springfm.files;
 
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public final class StoredFileSpecifications {
 
+    /** InnoDB ignores shorter tokens (innodb_ft_min_token_size), so they cannot be matched through the index. */
+    static final int MIN_FULLTEXT_TOKEN_LENGTH = 3;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}_]+");
+
     private StoredFileSpecifications() {
     }
 
@@ -22,6 +31,44 @@ public final class StoredFileSpecifications {
         );
     }
 
+    /**
+     * FULLTEXT variant of {@link #matchesQuery(String)}: every word must match as a prefix, so "rep doc"
+     * finds "Report.docx" but no longer finds "prepared". Falls back to LIKE when the query has no word
+     * long enough for the index.
+     */
+    public static Specification<StoredFile> matchesFullText(String query) {
+        String booleanQuery = toBooleanQuery(query);
+        if (booleanQuery.isEmpty()) {
+            return matchesQuery(query);
+        }
+        return (root, criteriaQuery, criteriaBuilder) -> criteriaBuilder.greaterThan(
+                criteriaBuilder.function(
+                        FullTextFunctionContributor.MATCH_AGAINST,
+                        Double.class,
+                        root.get("title"),
+                        root.get("filename"),
+                        root.get("metadataText"),
+                        criteriaBuilder.literal(booleanQuery)
+                ),
+                0.0
+        );
+    }
+
+    /**
+     * Turns free text into a boolean-mode query such as {@code +annual* +report*}. Operator characters are
+     * dropped so user input can never change the query structure.
+     */
+    static String toBooleanQuery(String query) {
+        if (query == null || query.isBlank()) {
+            return "";
+        }
+        return Arrays.stream(NON_WORD.split(query.toLowerCase(Locale.ROOT)))
+                .filter(term -> term.length() >= MIN_FULLTEXT_TOKEN_LENGTH)
+                .distinct()
+                .map(term -> "+" + term + "*")
+                .collect(Collectors.joining(" "));
+    }
+
     public static Specification<StoredFile> categoryIn(List<FileCategory> categories) {
         if (categories == null || categories.isEmpty()) {
             return (root, criteriaQuery, criteriaBuilder) -> criteriaBuilder.conjunction();
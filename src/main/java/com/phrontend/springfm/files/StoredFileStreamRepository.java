@@ -0,0 +1,23 @@
+package com.phrontend.springfm.files;
+
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Streaming counterpart of {@code JpaSpecificationExecutor.findAll(Specification, Sort)}.
+ */
+public interface StoredFileStreamRepository {
+
+    /**
+     * Streams every match through a server-side cursor. Must be consumed inside a transaction and
+     * closed afterwards.
+     */
+    Stream<StoredFile> streamAll(Specification<StoredFile> specification, Sort sort);
+
+    /**
+     * Distinct {@code uploadedBy} values of the matches.
+     */
+    List<String> findUploaders(Specification<StoredFile> specification);
+}
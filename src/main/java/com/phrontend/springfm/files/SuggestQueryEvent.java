@@ -0,0 +1,30 @@
+package com.phrontend.springfm.files;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(SuggestQueryEvent.NAME)
+@Label("Suggest Query")
+@Description("Loading suggestion candidates; filtering them in memory is not included")
+@Category({"SpringFM", "Search"})
+@StackTrace(false)
+class SuggestQueryEvent extends Event {
+
+    static final String NAME = "springfm.SuggestQuery";
+
+    @Label("Mode")
+    String mode;
+
+    @Label("Query Length")
+    int queryLength;
+
+    @Label("Categories")
+    String categories;
+
+    @Label("Rows Returned")
+    int rowsReturned;
+}
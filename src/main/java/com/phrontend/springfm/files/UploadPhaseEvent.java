@@ -0,0 +1,29 @@
+package com.phrontend.springfm.files;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(UploadPhaseEvent.NAME)
+@Label("Upload Phase")
+@Description("One phase of an upload: read, hash, store or insert")
+@Category({"SpringFM", "Upload"})
+@StackTrace(false)
+class UploadPhaseEvent extends Event {
+
+    static final String NAME = "springfm.UploadPhase";
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Bytes")
+    @DataAmount
+    long bytes;
+
+    @Label("Category")
+    String category;
+}
@@ -0,0 +1,123 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.BandwidthProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits download bandwidth fairly between active transfers. Each transfer is paced at
+ * {@code min(global / active transfers, perClient / that client's active transfers)}, recomputed
+ * before every chunk, so a new download immediately gets its share and a finished one hands its
+ * share back to the rest.
+ */
+@Component
+public class BandwidthShaper {
+
+    /** Transfers may not save up more than this much idle time to burst with later. */
+    private static final long MAX_CREDIT_NANOS = Duration.ofMillis(50).toNanos();
+
+    private final double globalBytesPerSecond;
+    private final double perClientBytesPerSecond;
+    private final LongSupplier nanoClock;
+    private final Sleeper sleeper;
+    private final AtomicInteger active = new AtomicInteger();
+    private final ConcurrentHashMap<String, AtomicInteger> activePerClient = new ConcurrentHashMap<>();
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+
+    @Autowired
+    public BandwidthShaper(BandwidthProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime, nanos -> Thread.sleep(Duration.ofNanos(nanos)));
+    }
+
+    BandwidthShaper(BandwidthProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock, Sleeper sleeper) {
+        this.globalBytesPerSecond = properties.global().toBytes();
+        this.perClientBytesPerSecond = properties.perClient().toBytes();
+        this.nanoClock = nanoClock;
+        this.sleeper = sleeper;
+        Gauge.builder("springfm.download.shaped.active", active, AtomicInteger::get)
+                .description("Downloads currently being paced")
+                .register(meterRegistry);
+    }
+
+    public Transfer start(String client) {
+        active.incrementAndGet();
+        activePerClient.computeIfAbsent(client, key -> new AtomicInteger()).incrementAndGet();
+        return new Transfer(client);
+    }
+
+    int activeTransfers() {
+        return active.get();
+    }
+
+    double rateFor(String client) {
+        double rate = Double.POSITIVE_INFINITY;
+        if (globalBytesPerSecond > 0) {
+            rate = globalBytesPerSecond / Math.max(1, active.get());
+        }
+        if (perClientBytesPerSecond > 0) {
+            AtomicInteger count = activePerClient.get(client);
+            rate = Math.min(rate, perClientBytesPerSecond / Math.max(1, count == null ? 0 : count.get()));
+        }
+        return rate;
+    }
+
+    private void finish(String client) {
+        active.decrementAndGet();
+        activePerClient.computeIfPresent(client, (key, count) -> count.decrementAndGet() == 0 ? null : count);
+    }
+
+    /**
+     * One paced download. Not thread-safe; a response is written by one thread at a time.
+     */
+    public final class Transfer implements AutoCloseable {
+
+        private final String client;
+        private long nextSendNanos;
+        private boolean closed;
+
+        private Transfer(String client) {
+            this.client = client;
+            this.nextSendNanos = nanoClock.getAsLong();
+        }
+
+        /**
+         * Blocks until {@code bytes} more may be sent at this transfer's current fair share.
+         */
+        public void pace(int bytes) throws InterruptedIOException {
+            double rate = rateFor(client);
+            if (Double.isInfinite(rate)) {
+                return;
+            }
+            long now = nanoClock.getAsLong();
+            nextSendNanos = Math.max(nextSendNanos, now - MAX_CREDIT_NANOS);
+            if (nextSendNanos > now) {
+                try {
+                    sleeper.sleep(nextSendNanos - now);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while pacing download");
+                }
+            }
+            nextSendNanos += (long) (bytes * 1_000_000_000d / rate);
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                finish(client);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.BandwidthProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Paces file download bodies through {@link BandwidthShaper}. Runs after
+ * {@code JwtAuthenticationFilter} so that per-client limits apply per user.
+ */
+@Component
+@RequiredArgsConstructor
+public class BandwidthShapingFilter extends OncePerRequestFilter {
+
+    private final BandwidthShaper bandwidthShaper;
+    private final BandwidthProperties bandwidthProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !bandwidthProperties.enabled() || RateLimitFilter.endpoint(request) != RateLimiter.Endpoint.DOWNLOAD;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        try (PacedResponse paced = new PacedResponse(response, bandwidthShaper, ClientKeys.of(request),
+                bandwidthProperties.bypassBelow().toBytes())) {
+            filterChain.doFilter(request, paced);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.phrontend.springfm.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A fair semaphore with a queue timeout. Virtual threads park while they queue, so waiting is cheap;
+ * what the limit protects is the resource behind it, such as the shared connection pool.
+ */
+public class Bulkhead {
+
+    static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    /**
+     * Returns the permit; closing it more than once has no further effect.
+     */
+    public interface Permit extends AutoCloseable {
+
+        Permit NONE = () -> {
+        };
+
+        @Override
+        void close();
+    }
+
+    private final String name;
+    private final int limit;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public Bulkhead(String trafficClass, String resource, int limit, Duration maxWait, MeterRegistry meterRegistry) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Bulkhead limit must be positive");
+        }
+        this.name = trafficClass + "/" + resource;
+        this.limit = limit;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(limit, true);
+
+        Tags tags = Tags.of("class", trafficClass, "resource", resource);
+        this.waitTimer = Timer.builder("springfm.bulkhead.wait")
+                .tags(tags)
+                .description("Time spent queueing for a bulkhead permit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("springfm.bulkhead.rejected")
+                .tags(tags)
+                .description("Requests refused because no permit came free within the queue timeout")
+                .register(meterRegistry);
+        Gauge.builder("springfm.bulkhead.limit", this, bulkhead -> bulkhead.limit)
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("springfm.bulkhead.active", this, Bulkhead::active)
+                .tags(tags)
+                .register(meterRegistry);
+        Gauge.builder("springfm.bulkhead.waiting", permits, Semaphore::getQueueLength)
+                .tags(tags)
+                .description("Requests queueing for a permit")
+                .register(meterRegistry);
+        Gauge.builder("springfm.bulkhead.saturation", this, bulkhead -> (double) bulkhead.active() / bulkhead.limit)
+                .tags(tags)
+                .description("Share of permits in use, 1.0 when the bulkhead is full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits up to the queue timeout for a permit.
+     *
+     * @throws BulkheadFullException when none came free in time
+     */
+    public Permit acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + name, e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException(name, RETRY_AFTER);
+        }
+        return new Permit() {
+            private boolean released;
+
+            @Override
+            public void close() {
+                if (!released) {
+                    released = true;
+                    permits.release();
+                }
+            }
+        };
+    }
+
+    int active() {
+        return limit - permits.availablePermits();
+    }
+}
@@ -0,0 +1,124 @@
+package com.phrontend.springfm.ratelimit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Holds the {@link Bulkheads} permits of the request's traffic class while the request runs, and
+ * answers {@code 503} with {@code Retry-After} when they cannot be had. Runs after the rate limiter,
+ * so requests it refuses never take a permit.
+ * <p>
+ * A download's disk permit is held until the body has been copied, since that copy is where the
+ * disk is read; the download limit is therefore a cap on concurrent transfers, paced ones included.
+ * Streaming responses (search exports) write their body after this filter returns, so their permits
+ * are held until the async request completes, fails or times out.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    /** The {@link Bulkheads.TrafficClass} the request was admitted under, for per-connection permits. */
+    static final String TRAFFIC_CLASS_ATTRIBUTE = BulkheadFilter.class.getName() + ".trafficClass";
+
+    private final Bulkheads bulkheads;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !bulkheads.enabled() || trafficClass(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Bulkheads.TrafficClass trafficClass = trafficClass(request);
+        Bulkhead.Permit permit;
+        try {
+            permit = bulkheads.acquireForRequest(trafficClass);
+        } catch (BulkheadFullException e) {
+            log.debug("Bulkhead full for {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+            reject(response, e);
+            return;
+        }
+
+        request.setAttribute(TRAFFIC_CLASS_ATTRIBUTE, trafficClass);
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            permit.close();
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            // The container holds back completion until this dispatch returns, so the listener
+            // cannot miss it
+            request.getAsyncContext().addListener(new ReleaseOnAsyncCompletion(permit));
+        } else {
+            permit.close();
+        }
+    }
+
+    static Bulkheads.TrafficClass trafficClass(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (path.equals("/api/search") || path.startsWith("/api/search/")) {
+            return Bulkheads.TrafficClass.SEARCH;
+        }
+        if (HttpMethod.GET.matches(method) && path.startsWith("/api/files/") && path.endsWith("/download")) {
+            return Bulkheads.TrafficClass.DOWNLOAD;
+        }
+        if (HttpMethod.POST.matches(method) && path.equals("/api/files/upload")) {
+            return Bulkheads.TrafficClass.UPLOAD;
+        }
+        if (HttpMethod.POST.matches(method) && (path.equals("/api/auth/login") || path.equals("/api/auth/register"))) {
+            return Bulkheads.TrafficClass.AUTH;
+        }
+        return null;
+    }
+
+    /**
+     * Releases the permit when an async request ends, however it ends. Permits ignore a second close.
+     */
+    private record ReleaseOnAsyncCompletion(Bulkhead.Permit permit) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Still the same request; the permit stays held
+        }
+    }
+
+    private static void reject(HttpServletResponse response, BulkheadFullException e) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfter().toSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Server busy, try again shortly\"}");
+    }
+}
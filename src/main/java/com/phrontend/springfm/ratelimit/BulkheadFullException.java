@@ -0,0 +1,19 @@
+package com.phrontend.springfm.ratelimit;
+
+import java.time.Duration;
+import lombok.Getter;
+
+/**
+ * Thrown when a {@link Bulkhead} has no permit within its queue timeout. Mapped to
+ * {@code 503 Service Unavailable}.
+ */
+@Getter
+public class BulkheadFullException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public BulkheadFullException(String bulkhead, Duration retryAfter) {
+        super("Server busy (" + bulkhead + "), try again shortly");
+        this.retryAfter = retryAfter;
+    }
+}
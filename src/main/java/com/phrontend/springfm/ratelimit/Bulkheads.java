@@ -0,0 +1,104 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.BulkheadProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * One {@link Bulkhead} per traffic class and resource, so that a burst in one class (say uploads
+ * holding connections) queues and then fails on its own instead of
+ * draining the connection pool or the disk for everyone else.
+ */
+@Component
+public class Bulkheads {
+
+    public enum TrafficClass {
+        SEARCH,
+        UPLOAD,
+        DOWNLOAD,
+        AUTH
+    }
+
+    public enum Resource {
+        DATABASE,
+        DISK
+    }
+
+    private final boolean enabled;
+    private final Map<TrafficClass, Map<Resource, Bulkhead>> bulkheads = new EnumMap<>(TrafficClass.class);
+    private final Map<TrafficClass, BulkheadProperties.DatabaseScope> databaseScopes = new EnumMap<>(TrafficClass.class);
+
+    public Bulkheads(BulkheadProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        register(TrafficClass.SEARCH, properties.search(), meterRegistry);
+        register(TrafficClass.UPLOAD, properties.upload(), meterRegistry);
+        register(TrafficClass.DOWNLOAD, properties.download(), meterRegistry);
+        register(TrafficClass.AUTH, properties.auth(), meterRegistry);
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * A permit for {@code resource} in {@code trafficClass}; {@link Bulkhead.Permit#NONE} when that
+     * resource is not limited for the class.
+     *
+     * @throws BulkheadFullException when the bulkhead stays full for its queue timeout
+     */
+    public Bulkhead.Permit acquire(TrafficClass trafficClass, Resource resource) {
+        Bulkhead bulkhead = enabled ? bulkheads.get(trafficClass).get(resource) : null;
+        return bulkhead == null ? Bulkhead.Permit.NONE : bulkhead.acquire();
+    }
+
+    /**
+     * Permits for everything a request of the class holds from start to finish: the disk first, then
+     * the database unless the class takes it per connection (see {@link #acquireForConnection}).
+     */
+    public Bulkhead.Permit acquireForRequest(TrafficClass trafficClass) {
+        Bulkhead.Permit disk = acquire(trafficClass, Resource.DISK);
+        Bulkhead.Permit database;
+        try {
+            database = databaseScopes.get(trafficClass) == BulkheadProperties.DatabaseScope.REQUEST
+                    ? acquire(trafficClass, Resource.DATABASE)
+                    : Bulkhead.Permit.NONE;
+        } catch (RuntimeException e) {
+            disk.close();
+            throw e;
+        }
+        return () -> {
+            database.close();
+            disk.close();
+        };
+    }
+
+    /**
+     * The database permit for one connection checkout, for classes with {@code CALL} database scope;
+     * {@link Bulkhead.Permit#NONE} for the others, whose permit is already held for the request.
+     */
+    public Bulkhead.Permit acquireForConnection(TrafficClass trafficClass) {
+        return databaseScopes.get(trafficClass) == BulkheadProperties.DatabaseScope.CALL
+                ? acquire(trafficClass, Resource.DATABASE)
+                : Bulkhead.Permit.NONE;
+    }
+
+    private void register(TrafficClass trafficClass, BulkheadProperties.Limits limits, MeterRegistry meterRegistry) {
+        Map<Resource, Bulkhead> byResource = new EnumMap<>(Resource.class);
+        String className = trafficClass.name().toLowerCase(Locale.ROOT);
+        if (limits.database() > 0) {
+            byResource.put(Resource.DATABASE,
+                    new Bulkhead(className, "database", limits.database(), limits.maxWait(), meterRegistry));
+        }
+        if (limits.disk() > 0) {
+            byResource.put(Resource.DISK,
+                    new Bulkhead(className, "disk", limits.disk(), limits.maxWait(), meterRegistry));
+        }
+        bulkheads.put(trafficClass, byResource);
+        databaseScopes.put(trafficClass, limits.databaseScope() == null
+                ? BulkheadProperties.DatabaseScope.REQUEST
+                : limits.databaseScope());
+    }
+}
@@ -0,0 +1,144 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.util.TokenBucket;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Response that charges a download to the client's {@link TokenBucket} as soon as the controller
+ * sets Content-Length, before any of the body is written, so downloads running in parallel already
+ * see each other's cost. {@link #settle()} evens the charge out against the bytes actually written:
+ * what a failed or aborted transfer never sent is refunded, and bodies without a length are charged
+ * what they wrote.
+ */
+final class ChargedResponse extends HttpServletResponseWrapper {
+
+    private final TokenBucket bucket;
+    private long charged;
+    private long written;
+    private ServletOutputStream outputStream;
+
+    ChargedResponse(HttpServletResponse response, TokenBucket bucket) {
+        super(response);
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        super.setContentLength(length);
+        charge(length);
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        super.setContentLengthLong(length);
+        charge(length);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        super.setHeader(name, value);
+        chargeHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        super.addHeader(name, value);
+        chargeHeader(name, value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        super.setIntHeader(name, value);
+        chargeHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        super.addIntHeader(name, value);
+        chargeHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new CountingOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    /**
+     * Charges or refunds the difference between the bytes written and the tokens charged so far.
+     */
+    void settle() {
+        charge(written);
+    }
+
+    private void chargeHeader(String name, String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && value != null) {
+            try {
+                charge(Long.parseLong(value.trim()));
+            } catch (NumberFormatException ignored) {
+                // Not a length the container would send either
+            }
+        }
+    }
+
+    private void charge(long length) {
+        if (length < 0) {
+            return;
+        }
+        long difference = length - charged;
+        if (difference > 0) {
+            bucket.charge(difference);
+        } else if (difference < 0) {
+            bucket.refund(-difference);
+        }
+        charged = length;
+    }
+
+    private final class CountingOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        private CountingOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            written += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.phrontend.springfm.ratelimit;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Identifies the client behind a request: the user id when authenticated, otherwise the remote
+ * address (which honours {@code server.forward-headers-strategy}).
+ */
+final class ClientKeys {
+
+    private ClientKeys() {
+    }
+
+    static String of(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof String userId) {
+            return "user:" + userId;
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
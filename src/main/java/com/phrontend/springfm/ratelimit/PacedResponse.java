@@ -0,0 +1,122 @@
+package com.phrontend.springfm.ratelimit;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+
+/**
+ * Response whose body is written in chunks paced by a {@link BandwidthShaper.Transfer}. Whether to
+ * pace is decided on the first write, once the controller has set Content-Length: bodies known to
+ * be smaller than {@code bypassBelow} are written directly. Writer-based (text) bodies are not paced.
+ */
+final class PacedResponse extends HttpServletResponseWrapper implements AutoCloseable {
+
+    static final int CHUNK_SIZE = 16 * 1024;
+
+    private final BandwidthShaper shaper;
+    private final String client;
+    private final long bypassBelow;
+    private ServletOutputStream outputStream;
+    private BandwidthShaper.Transfer transfer;
+
+    PacedResponse(HttpServletResponse response, BandwidthShaper shaper, String client, long bypassBelow) {
+        super(response);
+        this.shaper = shaper;
+        this.client = client;
+        this.bypassBelow = bypassBelow;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new PacedOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public void close() {
+        if (transfer != null) {
+            transfer.close();
+        }
+    }
+
+    private BandwidthShaper.Transfer transfer() {
+        if (transfer == null) {
+            String contentLength = getHeader("Content-Length");
+            if (contentLength != null && Long.parseLong(contentLength) < bypassBelow) {
+                return null;
+            }
+            transfer = shaper.start(client);
+        }
+        return transfer;
+    }
+
+    private final class PacedOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+        private boolean bypass;
+
+        private PacedOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            BandwidthShaper.Transfer current = current();
+            if (current != null) {
+                current.pace(1);
+            }
+            delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            BandwidthShaper.Transfer current = current();
+            if (current == null) {
+                delegate.write(bytes, offset, length);
+                return;
+            }
+            while (length > 0) {
+                int chunk = Math.min(length, CHUNK_SIZE);
+                current.pace(chunk);
+                delegate.write(bytes, offset, chunk);
+                // Push each chunk out so the client sees the paced rate, not bursts of buffer size
+                delegate.flush();
+                offset += chunk;
+                length -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+
+        private BandwidthShaper.Transfer current() {
+            if (bypass) {
+                return null;
+            }
+            BandwidthShaper.Transfer current = transfer();
+            bypass = current == null;
+            return current;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.phrontend.springfm.ratelimit;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Takes the database permit of traffic classes with {@code CALL} database scope around each
+ * connection checkout, so the permit is held exactly as long as a pooled connection and no service
+ * code has to know about bulkheads. The class comes from the request attribute set by
+ * {@link BulkheadFilter}; checkouts before the request is admitted and outside requests pass through.
+ * So do checkouts from streaming bodies written on an async thread, which sees no request attributes;
+ * such requests are covered by the request-scoped permit {@link BulkheadFilter} holds until they end.
+ * A full bulkhead surfaces as {@link BulkheadFullException}, possibly wrapped by the
+ * transaction manager, and is still answered with {@code 503}.
+ */
+@Component
+public class PerConnectionBulkhead implements BeanPostProcessor {
+
+    private final ObjectProvider<Bulkheads> bulkheads;
+
+    public PerConnectionBulkhead(ObjectProvider<Bulkheads> bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof LimitedDataSource)) {
+            return new LimitedDataSource(dataSource, bulkheads);
+        }
+        return bean;
+    }
+
+    static Bulkheads.TrafficClass currentTrafficClass() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        return (Bulkheads.TrafficClass) attributes.getAttribute(
+                BulkheadFilter.TRAFFIC_CLASS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    static final class LimitedDataSource extends DelegatingDataSource {
+
+        private final ObjectProvider<Bulkheads> bulkheads;
+
+        LimitedDataSource(DataSource target, ObjectProvider<Bulkheads> bulkheads) {
+            super(target);
+            this.bulkheads = bulkheads;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Bulkhead.Permit permit = acquire();
+            try {
+                return withPermit(super.getConnection(), permit);
+            } catch (SQLException | RuntimeException e) {
+                permit.close();
+                throw e;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            Bulkhead.Permit permit = acquire();
+            try {
+                return withPermit(super.getConnection(username, password), permit);
+            } catch (SQLException | RuntimeException e) {
+                permit.close();
+                throw e;
+            }
+        }
+
+        private Bulkhead.Permit acquire() {
+            Bulkheads.TrafficClass trafficClass = currentTrafficClass();
+            return trafficClass == null
+                    ? Bulkhead.Permit.NONE
+                    : bulkheads.getObject().acquireForConnection(trafficClass);
+        }
+
+        private static Connection withPermit(Connection connection, Bulkhead.Permit permit) {
+            if (permit == Bulkhead.Permit.NONE) {
+                return connection;
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, new ReleaseOnClose(connection, permit));
+        }
+    }
+
+    /**
+     * Returns the permit when the connection goes back to the pool. Permits ignore a second close.
+     */
+    private record ReleaseOnClose(Connection connection, Bulkhead.Permit permit) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    try {
+                        connection.close();
+                    } finally {
+                        permit.close();
+                    }
+                    return null;
+                default:
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.RateLimitProperties;
+import com.phrontend.springfm.util.TokenBucket;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Applies {@link RateLimiter} budgets. Runs after {@code JwtAuthenticationFilter} so that signed-in
+ * clients are limited per user id; everyone else is limited per remote address, which honours
+ * {@code server.forward-headers-strategy} when the app runs behind a proxy.
+ * <p>
+ * Search, suggest and upload cost one token per request. Downloads are charged their response
+ * size as soon as it is known, before the body is written (see {@link ChargedResponse}), and are
+ * refused while the client is still paying off earlier downloads.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimiter rateLimiter;
+    private final RateLimitProperties rateLimitProperties;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimitProperties.enabled() || endpoint(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RateLimiter.Endpoint endpoint = endpoint(request);
+        String client = ClientKeys.of(request);
+        TokenBucket bucket = rateLimiter.bucket(endpoint, client);
+
+        long waitNanos = bucket.tryAcquire(endpoint == RateLimiter.Endpoint.DOWNLOAD ? 0 : 1);
+        if (waitNanos > 0) {
+            rateLimiter.recordRejection(endpoint);
+            log.debug("Rate limited {} for {}, retry in {} ms", endpoint, client, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            reject(response, waitNanos);
+            return;
+        }
+
+        if (endpoint != RateLimiter.Endpoint.DOWNLOAD) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ChargedResponse charged = new ChargedResponse(response, bucket);
+        try {
+            filterChain.doFilter(request, charged);
+        } finally {
+            charged.settle();
+        }
+    }
+
+    static RateLimiter.Endpoint endpoint(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (path.equals("/api/search/suggest")) {
+            return RateLimiter.Endpoint.SUGGEST;
+        }
+        if (path.equals("/api/search") || path.startsWith("/api/search/")) {
+            return RateLimiter.Endpoint.SEARCH;
+        }
+        if (HttpMethod.GET.matches(method) && path.startsWith("/api/files/") && path.endsWith("/download")) {
+            return RateLimiter.Endpoint.DOWNLOAD;
+        }
+        if (HttpMethod.POST.matches(method) && path.equals("/api/files/upload")) {
+            return RateLimiter.Endpoint.UPLOAD;
+        }
+        return null;
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Rate limit exceeded\"}");
+    }
+}
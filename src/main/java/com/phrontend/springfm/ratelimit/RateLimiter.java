@@ -0,0 +1,72 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.phrontend.springfm.config.RateLimitProperties;
+import com.phrontend.springfm.util.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token buckets per (endpoint, client). Buckets live in a size-bounded map and are dropped after
+ * sitting idle, so a scan from many addresses cannot grow memory without limit; a dropped bucket
+ * comes back full, which is what an idle client would have anyway.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Endpoint {
+        SEARCH,
+        SUGGEST,
+        DOWNLOAD,
+        UPLOAD
+    }
+
+    private record BucketKey(Endpoint endpoint, String client) {
+    }
+
+    private final Map<Endpoint, RateLimitProperties.Budget> budgets = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Counter> rejections = new EnumMap<>(Endpoint.class);
+    private final Cache<BucketKey, TokenBucket> buckets;
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        budgets.put(Endpoint.SEARCH, properties.search());
+        budgets.put(Endpoint.SUGGEST, properties.suggest());
+        budgets.put(Endpoint.DOWNLOAD, properties.download());
+        budgets.put(Endpoint.UPLOAD, properties.upload());
+        for (Endpoint endpoint : Endpoint.values()) {
+            rejections.put(endpoint, Counter.builder("springfm.ratelimit.rejected")
+                    .tag("endpoint", endpoint.name().toLowerCase(Locale.ROOT))
+                    .description("Requests refused because the client's bucket was empty")
+                    .register(meterRegistry));
+        }
+
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxBuckets())
+                .expireAfterAccess(properties.idleTimeout())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimitBuckets");
+    }
+
+    public TokenBucket bucket(Endpoint endpoint, String client) {
+        return buckets.get(new BucketKey(endpoint, client), key -> {
+            RateLimitProperties.Budget budget = budgets.get(key.endpoint());
+            return new TokenBucket(budget.capacity(), budget.refillPerSecond());
+        });
+    }
+
+    void recordRejection(Endpoint endpoint) {
+        rejections.get(endpoint).increment();
+    }
+
+    long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
@@ -0,0 +1,143 @@
+package com.phrontend.springfm.storage;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Size-bounded cache of whole small files held in direct (off-heap) buffers and keyed by content hash.
+ * Lookups are lock-free. Admission follows TinyLFU: when the cache is full, a new file only replaces
+ * the oldest entry if the frequency sketch has seen it requested more often.
+ */
+public class HotFileCache {
+
+    private static final long AVERAGE_ENTRY_BYTES = 32 * 1024;
+
+    private final long capacityBytes;
+    private final long maxEntryBytes;
+    private final FrequencySketch sketch;
+    private final Map<String, ByteBuffer> entries = new ConcurrentHashMap<>();
+    private final ArrayDeque<String> insertionOrder = new ArrayDeque<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+    private volatile long usedBytes;
+
+    public HotFileCache(long capacityBytes, long maxEntryBytes, MeterRegistry meterRegistry) {
+        this.capacityBytes = capacityBytes;
+        this.maxEntryBytes = Math.min(maxEntryBytes, capacityBytes);
+        this.sketch = new FrequencySketch((int) Math.min(Integer.MAX_VALUE, Math.max(1, capacityBytes / AVERAGE_ENTRY_BYTES)));
+
+        FunctionCounter.builder("springfm.hotcache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Download lookups served from the hot-file cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("springfm.hotcache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Download lookups that had to read from storage")
+                .register(meterRegistry);
+        FunctionCounter.builder("springfm.hotcache.served", bytesServed, LongAdder::sum)
+                .baseUnit("bytes")
+                .description("Bytes served from the hot-file cache")
+                .register(meterRegistry);
+        FunctionCounter.builder("springfm.hotcache.rejections", rejections, LongAdder::sum)
+                .description("Files the admission filter kept out of the cache")
+                .register(meterRegistry);
+        Gauge.builder("springfm.hotcache.size", this, cache -> cache.usedBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("springfm.hotcache.entries", entries, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("springfm.hotcache.hit.ratio", this, HotFileCache::hitRatio)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a file of this size is small enough to be cached at all.
+     */
+    public boolean accepts(long size) {
+        return size > 0 && size <= maxEntryBytes;
+    }
+
+    /**
+     * Records an access and returns a read-only view of the cached content, or {@code null} on a miss.
+     */
+    public ByteBuffer get(String key) {
+        sketch.increment(key);
+        ByteBuffer buffer = entries.get(key);
+        if (buffer == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        bytesServed.add(buffer.remaining());
+        return buffer.duplicate();
+    }
+
+    /**
+     * Cheap pre-check so callers only read a file into memory when {@link #put} would keep it.
+     */
+    public boolean wouldAdmit(String key, long size) {
+        if (!accepts(size)) {
+            return false;
+        }
+        if (usedBytes + size <= capacityBytes) {
+            return true;
+        }
+        lock.lock();
+        try {
+            String victim = insertionOrder.peekFirst();
+            return victim == null || sketch.frequency(key) > sketch.frequency(victim);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void put(String key, byte[] content) {
+        if (!accepts(content.length)) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (entries.containsKey(key)) {
+                return;
+            }
+            int candidateFrequency = sketch.frequency(key);
+            while (usedBytes + content.length > capacityBytes) {
+                String victim = insertionOrder.peekFirst();
+                if (victim == null) {
+                    break;
+                }
+                if (candidateFrequency <= sketch.frequency(victim)) {
+                    rejections.increment();
+                    return;
+                }
+                insertionOrder.pollFirst();
+                ByteBuffer evicted = entries.remove(victim);
+                if (evicted != null) {
+                    usedBytes -= evicted.capacity();
+                }
+            }
+            ByteBuffer buffer = ByteBuffer.allocateDirect(content.length).put(content).flip().asReadOnlyBuffer();
+            entries.put(key, buffer);
+            insertionOrder.addLast(key);
+            usedBytes += content.length;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public double hitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+}
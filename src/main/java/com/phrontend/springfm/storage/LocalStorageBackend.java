@@ -0,0 +1,80 @@
+package com.phrontend.springfm.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * Stores each blob as a file below a single root directory, using the key as the relative path.
+ */
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path root;
+
+    public LocalStorageBackend(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+    }
+
+    public Path root() {
+        return root;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length) throws IOException {
+        Path target = contain(key);
+        Files.createDirectories(target.getParent());
+        Files.copy(content, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        Files.deleteIfExists(contain(key));
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.exists(contain(key));
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return Files.size(resolve(key));
+    }
+
+    @Override
+    public Resource resource(String key) {
+        return new FileSystemResource(resolve(key));
+    }
+
+    @Override
+    public List<Path> localRoots() {
+        return List.of(root);
+    }
+
+    private Path contain(String key) {
+        Path resolved = root.resolve(key).normalize();
+        if (!resolved.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid storage path");
+        }
+        return resolved;
+    }
+
+    private Path resolve(String key) {
+        Path resolved = contain(key);
+        if (!Files.exists(resolved)) {
+            throw new IllegalArgumentException("File not found");
+        }
+        return resolved;
+    }
+}
@@ -0,0 +1,414 @@
+package com.phrontend.springfm.storage;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only storage for small blobs. Blobs are appended to segment files and located through an
+ * in-memory offset/length index that is rebuilt from the segments on startup. Deletes are recorded
+ * in a tombstone log, and {@link #compact(double)} rewrites segments whose dead share exceeds a threshold.
+ */
+@Slf4j
+public class PackStore implements Closeable {
+
+    public static final String PATH_PREFIX = "pack/";
+
+    private static final String SEGMENT_SUFFIX = ".pack";
+    private static final String TOMBSTONE_LOG = "tombstones.log";
+    private static final int HEADER_BYTES = Long.BYTES * 2 + Integer.BYTES;
+    private static final int TOMBSTONE_BYTES = Long.BYTES * 2 + Integer.BYTES;
+
+    private final Path directory;
+    private final long segmentSize;
+    private final Map<UUID, Location> index = new ConcurrentHashMap<>();
+    private final NavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock compactionLock = new ReentrantLock();
+    private volatile Segment active;
+    private FileChannel tombstones;
+
+    public PackStore(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        recover();
+    }
+
+    public static boolean isPackPath(String storagePath) {
+        return storagePath != null && storagePath.startsWith(PATH_PREFIX);
+    }
+
+    public String put(byte[] content) throws IOException {
+        UUID id = UUID.randomUUID();
+        writeLock.lock();
+        try {
+            index.put(id, append(id, content));
+        } finally {
+            writeLock.unlock();
+        }
+        return PATH_PREFIX + id;
+    }
+
+    public byte[] read(String storagePath) throws IOException {
+        UUID id = parse(storagePath);
+        // A concurrent compaction may retire the segment between the index lookup and the read;
+        // the second attempt then sees the relocated copy.
+        for (int attempt = 0; attempt < 2; attempt++) {
+            Location location = index.get(id);
+            if (location == null) {
+                break;
+            }
+            Segment segment = segments.get(location.segment());
+            if (segment == null) {
+                continue;
+            }
+            try {
+                return readAt(segment.channel(), location.offset(), location.length());
+            } catch (ClosedByInterruptException e) {
+                throw e;
+            } catch (ClosedChannelException e) {
+                log.debug("Pack segment {} closed during read of {}", segment.id, id);
+            }
+        }
+        throw new IllegalArgumentException("File not found");
+    }
+
+    public boolean exists(String storagePath) {
+        return index.containsKey(parse(storagePath));
+    }
+
+    public void delete(String storagePath) throws IOException {
+        UUID id = parse(storagePath);
+        writeLock.lock();
+        try {
+            Location location = index.remove(id);
+            if (location == null) {
+                return;
+            }
+            ByteBuffer record = ByteBuffer.allocate(TOMBSTONE_BYTES)
+                    .putLong(id.getMostSignificantBits())
+                    .putLong(id.getLeastSignificantBits())
+                    .putInt(location.segment())
+                    .flip();
+            writeFully(tombstones, record, tombstones.size());
+            markDead(location);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Rewrites every sealed segment whose dead bytes make up at least {@code threshold} of its content.
+     *
+     * @return the number of segments that were reclaimed
+     */
+    public int compact(double threshold) throws IOException {
+        compactionLock.lock();
+        try {
+            int reclaimed = 0;
+            for (Segment segment : List.copyOf(segments.values())) {
+                if (segment == active || !segment.shouldCompact(threshold)) {
+                    continue;
+                }
+                relocateLiveBlobs(segment);
+                retire(segment);
+                reclaimed++;
+            }
+            return reclaimed;
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    public int blobCount() {
+        return index.size();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writeLock.lock();
+        try {
+            for (Segment segment : segments.values()) {
+                segment.retired = true;
+                if (segment.channel.isOpen()) {
+                    segment.channel.force(false);
+                    segment.channel.close();
+                }
+            }
+            tombstones.close();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.endsWith(SEGMENT_SUFFIX))
+                    .map(name -> Integer.parseInt(name.substring(0, name.length() - SEGMENT_SUFFIX.length())))
+                    .sorted()
+                    .forEach(ids::add);
+        }
+
+        for (int id : ids) {
+            Segment segment = new Segment(id, segmentPath(id));
+            segments.put(id, segment);
+            scan(segment);
+        }
+
+        tombstones = FileChannel.open(directory.resolve(TOMBSTONE_LOG),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        for (Tombstone tombstone : readTombstones()) {
+            Location location = index.get(tombstone.id());
+            if (location != null && location.segment() == tombstone.segment()) {
+                index.remove(tombstone.id());
+                markDead(location);
+            }
+        }
+
+        Segment last = segments.isEmpty() ? null : segments.lastEntry().getValue();
+        active = last != null && last.size < segmentSize ? last : createSegment(ids.isEmpty() ? 1 : ids.getLast() + 1);
+        log.info("Pack store opened: directory={}, segments={}, blobs={}", directory, segments.size(), index.size());
+    }
+
+    private void scan(Segment segment) throws IOException {
+        FileChannel channel = segment.channel;
+        long fileSize = channel.size();
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        while (position + HEADER_BYTES <= fileSize) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            UUID id = new UUID(header.getLong(), header.getLong());
+            int length = header.getInt();
+            if (length < 0 || position + HEADER_BYTES + length > fileSize) {
+                break;
+            }
+            Location location = new Location(segment.id, position + HEADER_BYTES, length);
+            Location previous = index.put(id, location);
+            if (previous != null) {
+                // Left behind by a compaction that was interrupted before retiring the old segment
+                markDead(previous);
+            }
+            segment.liveBytes.addAndGet(length);
+            position += HEADER_BYTES + length;
+        }
+        if (position < fileSize) {
+            log.warn("Truncating torn tail of pack segment {} at offset {}", segment.path, position);
+            channel.truncate(position);
+        }
+        segment.size = position;
+    }
+
+    private Location append(UUID id, byte[] content) throws IOException {
+        long recordSize = HEADER_BYTES + (long) content.length;
+        if (active.size > 0 && active.size + recordSize > segmentSize) {
+            active.channel.force(false);
+            active = createSegment(active.id + 1);
+        }
+        ByteBuffer record = ByteBuffer.allocate(HEADER_BYTES + content.length)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .putInt(content.length)
+                .put(content)
+                .flip();
+        long position = active.size;
+        writeFully(active.channel(), record, position);
+        active.size = position + recordSize;
+        active.liveBytes.addAndGet(content.length);
+        return new Location(active.id, position + HEADER_BYTES, content.length);
+    }
+
+    private void relocateLiveBlobs(Segment segment) throws IOException {
+        for (Map.Entry<UUID, Location> entry : index.entrySet()) {
+            Location location = entry.getValue();
+            if (location.segment() != segment.id) {
+                continue;
+            }
+            byte[] content = readAt(segment.channel(), location.offset(), location.length());
+            writeLock.lock();
+            try {
+                // Skip blobs deleted while they were being copied
+                if (location.equals(index.get(entry.getKey()))) {
+                    index.put(entry.getKey(), append(entry.getKey(), content));
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private void retire(Segment segment) throws IOException {
+        writeLock.lock();
+        try {
+            active.channel().force(false);
+            segments.remove(segment.id);
+            segment.retired = true;
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+            rewriteTombstonesWithout(segment.id);
+        } finally {
+            writeLock.unlock();
+        }
+        log.info("Compacted pack segment {} ({} dead bytes reclaimed)", segment.path, segment.deadBytes.get());
+    }
+
+    private void rewriteTombstonesWithout(int segmentId) throws IOException {
+        Path tmp = directory.resolve(TOMBSTONE_LOG + ".tmp");
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer record = ByteBuffer.allocate(TOMBSTONE_BYTES);
+            for (Tombstone tombstone : readTombstones()) {
+                if (tombstone.segment() == segmentId) {
+                    continue;
+                }
+                record.clear()
+                        .putLong(tombstone.id().getMostSignificantBits())
+                        .putLong(tombstone.id().getLeastSignificantBits())
+                        .putInt(tombstone.segment())
+                        .flip();
+                writeFully(out, record, out.size());
+            }
+            out.force(false);
+        }
+        tombstones.close();
+        Files.move(tmp, directory.resolve(TOMBSTONE_LOG),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        tombstones = FileChannel.open(directory.resolve(TOMBSTONE_LOG),
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private List<Tombstone> readTombstones() throws IOException {
+        List<Tombstone> result = new ArrayList<>();
+        long size = tombstones.size();
+        ByteBuffer record = ByteBuffer.allocate(TOMBSTONE_BYTES);
+        for (long position = 0; position + TOMBSTONE_BYTES <= size; position += TOMBSTONE_BYTES) {
+            record.clear();
+            readFully(tombstones, record, position);
+            record.flip();
+            result.add(new Tombstone(new UUID(record.getLong(), record.getLong()), record.getInt()));
+        }
+        return result;
+    }
+
+    private void markDead(Location location) {
+        Segment segment = segments.get(location.segment());
+        if (segment != null) {
+            segment.liveBytes.addAndGet(-location.length());
+            segment.deadBytes.addAndGet(location.length());
+        }
+    }
+
+    private Segment createSegment(int id) throws IOException {
+        Segment segment = new Segment(id, segmentPath(id));
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private Path segmentPath(int id) {
+        return directory.resolve("%08d%s".formatted(id, SEGMENT_SUFFIX));
+    }
+
+    private static UUID parse(String storagePath) {
+        if (!isPackPath(storagePath)) {
+            throw new IllegalArgumentException("Invalid storage path");
+        }
+        try {
+            return UUID.fromString(storagePath.substring(PATH_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid storage path");
+        }
+    }
+
+    private static byte[] readAt(FileChannel channel, long offset, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(channel, buffer, offset);
+        return buffer.array();
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of pack segment");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private record Location(int segment, long offset, int length) {
+    }
+
+    private record Tombstone(UUID id, int segment) {
+    }
+
+    private static final class Segment {
+
+        private final int id;
+        private final Path path;
+        private final AtomicLong liveBytes = new AtomicLong();
+        private final AtomicLong deadBytes = new AtomicLong();
+        private volatile FileChannel channel;
+        private volatile long size;
+        private volatile boolean retired;
+
+        private Segment(int id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = open(path);
+        }
+
+        /**
+         * Returns the segment channel, reopening it if an interrupted reader closed it.
+         */
+        private FileChannel channel() throws IOException {
+            FileChannel current = channel;
+            if (current.isOpen() || retired) {
+                return current;
+            }
+            synchronized (this) {
+                if (!channel.isOpen() && !retired) {
+                    channel = open(path);
+                }
+                return channel;
+            }
+        }
+
+        private boolean shouldCompact(double threshold) {
+            long dead = deadBytes.get();
+            long total = dead + liveBytes.get();
+            return total > 0 && dead >= total * threshold;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.phrontend.springfm.storage;
+
+import com.phrontend.springfm.config.StorageProperties;
+import java.io.Closeable;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Stores blobs as objects in an S3-compatible bucket. Set {@code app.storage.s3.endpoint} to point it
+ * at MinIO, Ceph RGW or another local stand-in instead of AWS.
+ */
+public class S3StorageBackend implements StorageBackend, Closeable {
+
+    private final S3Client client;
+    private final String bucket;
+    private final String prefix;
+
+    public S3StorageBackend(S3Client client, String bucket, String prefix) {
+        this.client = client;
+        this.bucket = bucket;
+        this.prefix = prefix == null ? "" : prefix;
+    }
+
+    public static S3StorageBackend create(StorageProperties.S3 properties) {
+        AwsCredentialsProvider credentials = properties.accessKey() == null || properties.accessKey().isBlank()
+                ? DefaultCredentialsProvider.create()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(properties.accessKey(), properties.secretKey()));
+
+        S3ClientBuilder builder = S3Client.builder()
+                .region(Region.of(properties.region()))
+                .credentialsProvider(credentials)
+                .forcePathStyle(properties.pathStyle())
+                // S3-compatible stores do not all understand the aws-chunked checksum trailers
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+        if (properties.endpoint() != null && !properties.endpoint().isBlank()) {
+            builder.endpointOverride(URI.create(properties.endpoint()));
+        }
+        return new S3StorageBackend(builder.build(), properties.bucket(), properties.prefix());
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length) {
+        PutObjectRequest request = PutObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey(key))
+                .contentLength(length)
+                .build();
+        client.putObject(request, RequestBody.fromInputStream(content, length));
+    }
+
+    @Override
+    public InputStream get(String key) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey(key))
+                .build();
+        try {
+            return client.getObject(request);
+        } catch (NoSuchKeyException e) {
+            throw new IllegalArgumentException("File not found");
+        }
+    }
+
+    @Override
+    public void delete(String key) {
+        client.deleteObject(DeleteObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey(key))
+                .build());
+    }
+
+    @Override
+    public boolean exists(String key) {
+        try {
+            head(key);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public long size(String key) {
+        return head(key);
+    }
+
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    private long head(String key) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(bucket)
+                .key(objectKey(key))
+                .build();
+        try {
+            return client.headObject(request).contentLength();
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new IllegalArgumentException("File not found");
+            }
+            throw e;
+        }
+    }
+
+    private String objectKey(String key) {
+        if (key.startsWith("/") || List.of(key.split("/")).contains("..")) {
+            throw new IllegalArgumentException("Invalid storage path");
+        }
+        return prefix + key;
+    }
+}
@@ -0,0 +1,103 @@
+package com.phrontend.springfm.storage;
+
+import com.phrontend.springfm.util.Hashing;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+
+/**
+ * Spreads blobs across several local roots (typically one per disk) with a consistent-hash ring, so
+ * that reads and writes for different keys run on different spindles. Adding a root only moves the
+ * keys that now hash to it; lookups fall back to the other roots for blobs written before the change.
+ */
+@Slf4j
+public class ShardedStorageBackend implements StorageBackend {
+
+    private static final int VIRTUAL_NODES = 128;
+
+    private final List<LocalStorageBackend> shards;
+    private final NavigableMap<Long, LocalStorageBackend> ring = new TreeMap<>();
+
+    public ShardedStorageBackend(List<LocalStorageBackend> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one storage root is required");
+        }
+        this.shards = List.copyOf(shards);
+        for (LocalStorageBackend shard : this.shards) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(Hashing.hash64(shard.root() + "#" + i), shard);
+            }
+        }
+    }
+
+    public List<LocalStorageBackend> shards() {
+        return shards;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long length) throws IOException {
+        primary(key).put(key, content, length);
+    }
+
+    @Override
+    public InputStream get(String key) throws IOException {
+        return locate(key).get(key);
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        for (LocalStorageBackend shard : shards) {
+            shard.delete(key);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        for (LocalStorageBackend shard : shards) {
+            if (shard.exists(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long size(String key) throws IOException {
+        return locate(key).size(key);
+    }
+
+    @Override
+    public List<Path> localRoots() {
+        return shards.stream().map(LocalStorageBackend::root).toList();
+    }
+
+    @Override
+    public Resource resource(String key) {
+        return locate(key).resource(key);
+    }
+
+    LocalStorageBackend primary(String key) {
+        Map.Entry<Long, LocalStorageBackend> entry = ring.ceilingEntry(Hashing.hash64(key));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    private LocalStorageBackend locate(String key) {
+        LocalStorageBackend primary = primary(key);
+        if (primary.exists(key)) {
+            return primary;
+        }
+        for (LocalStorageBackend shard : shards) {
+            if (shard != primary && shard.exists(key)) {
+                log.debug("Blob {} found outside its primary shard in {}", key, shard.root());
+                return shard;
+            }
+        }
+        throw new IllegalArgumentException("File not found");
+    }
+}
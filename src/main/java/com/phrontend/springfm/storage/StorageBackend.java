@@ -0,0 +1,35 @@
+package com.phrontend.springfm.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.core.io.Resource;
+
+/**
+ * Blob storage used by {@code StorageService}. Keys are the relative storage paths persisted on
+ * {@code StoredFile}; implementations throw {@link IllegalArgumentException} for unknown or invalid keys.
+ */
+public interface StorageBackend {
+
+    void put(String key, InputStream content, long length) throws IOException;
+
+    InputStream get(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    long size(String key) throws IOException;
+
+    default Resource resource(String key) {
+        return new StorageBackendResource(this, key);
+    }
+
+    /**
+     * Local directories holding the blobs, each laid out as {@code xx/yy/<key>}; empty for remote backends.
+     */
+    default List<Path> localRoots() {
+        return List.of();
+    }
+}
@@ -0,0 +1,50 @@
+package com.phrontend.springfm.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import org.springframework.core.io.AbstractResource;
+
+/**
+ * Streams a blob from a {@link StorageBackend}. Each call to {@link #getInputStream()} opens a new read.
+ */
+class StorageBackendResource extends AbstractResource {
+
+    private final StorageBackend backend;
+    private final String key;
+
+    StorageBackendResource(StorageBackend backend, String key) {
+        this.backend = backend;
+        this.key = key;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return backend.get(key);
+    }
+
+    @Override
+    public boolean exists() {
+        try {
+            return backend.exists(key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return backend.size(key);
+    }
+
+    @Override
+    public String getFilename() {
+        int slash = key.lastIndexOf('/');
+        return slash >= 0 ? key.substring(slash + 1) : key;
+    }
+
+    @Override
+    public String getDescription() {
+        return "Storage blob [" + key + "]";
+    }
+}
@@ -0,0 +1,103 @@
+package com.phrontend.springfm.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * Lists the blobs below a local storage root in parallel: one fork/join task per {@code xx} and
+ * {@code yy} fan-out directory, so the 65,536 leaf directories spread over the pool. Only two-character
+ * directories are followed, which keeps pack segments and anything else below the root out of the walk.
+ */
+public final class StorageTreeWalker {
+
+    private static final int FAN_OUT_DEPTH = 2;
+
+    public record Blob(String key, long size, Instant lastModified) {
+    }
+
+    private final ForkJoinPool pool;
+    private final Runnable pace;
+
+    /**
+     * @param pace called before each directory listing and each file, on the worker thread; may block
+     *             to throttle the walk
+     */
+    public StorageTreeWalker(ForkJoinPool pool, Runnable pace) {
+        this.pool = pool;
+        this.pace = pace;
+    }
+
+    /**
+     * Hands every blob below {@code root} to {@code consumer}, from several threads at once. Files and
+     * directories deleted while the walk runs are skipped.
+     *
+     * @throws UncheckedIOException when the root or a directory that still exists cannot be listed
+     */
+    public void walk(Path root, Consumer<Blob> consumer) {
+        pool.invoke(new DirectoryTask(root, root, 0, consumer));
+    }
+
+    private final class DirectoryTask extends RecursiveAction {
+
+        private final Path root;
+        private final Path directory;
+        private final int depth;
+        private final Consumer<Blob> consumer;
+
+        private DirectoryTask(Path root, Path directory, int depth, Consumer<Blob> consumer) {
+            this.root = root;
+            this.directory = directory;
+            this.depth = depth;
+            this.consumer = consumer;
+        }
+
+        @Override
+        protected void compute() {
+            pace.run();
+            List<DirectoryTask> subtasks = new ArrayList<>();
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+                for (Path entry : entries) {
+                    if (depth < FAN_OUT_DEPTH) {
+                        if (entry.getFileName().toString().length() == 2 && Files.isDirectory(entry)) {
+                            subtasks.add(new DirectoryTask(root, entry, depth + 1, consumer));
+                        }
+                        continue;
+                    }
+                    BasicFileAttributes attributes;
+                    try {
+                        attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                    } catch (NoSuchFileException e) {
+                        // Deleted since the directory was listed
+                        continue;
+                    }
+                    if (attributes.isRegularFile()) {
+                        pace.run();
+                        consumer.accept(new Blob(root.relativize(entry).toString().replace(File.separatorChar, '/'),
+                                attributes.size(), attributes.lastModifiedTime().toInstant()));
+                    }
+                }
+            } catch (NoSuchFileException e) {
+                if (depth == 0) {
+                    throw new UncheckedIOException("Could not list " + directory, e);
+                }
+                // Removed since its parent was listed
+                return;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not list " + directory, e);
+            }
+            invokeAll(subtasks);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.phrontend.springfm.user;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Current permission version per user, reloaded after a short TTL. The TTL is how long a revoked
+ * permission can still be used on this node.
+ */
+@Component
+public class PermissionVersionCache {
+
+    /** Returned for users that no longer exist, so no token matches. */
+    public static final int NO_USER = -1;
+
+    private final LoadingCache<Long, Integer> cache;
+
+    public PermissionVersionCache(UserRepository userRepository,
+                                  @Value("${app.security.permission-version.max-entries:100000}") long maxEntries,
+                                  @Value("${app.security.permission-version.ttl:PT30S}") Duration ttl,
+                                  MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build(id -> userRepository.findPermissionVersionById(id).orElse(NO_USER));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "permissionVersions");
+    }
+
+    public int current(Long userId) {
+        return cache.get(userId);
+    }
+
+    public void invalidate(Long userId) {
+        cache.invalidate(userId);
+    }
+}
@@ -41,6 +41,12 @@ public class UserEntity {
     @Builder.Default
     private Boolean canUpload = false;
 
+    // Maintained by the users_permission_version trigger whenever can_upload changes (see V5 for the
+    // privilege creating it needs)
+    @Column(nullable = false, name = "permission_version", updatable = false)
+    @Builder.Default
+    private Integer permissionVersion = 0;
+
     @CreationTimestamp
     @Column(nullable = false, updatable = false)
     private OffsetDateTime created;
@@ -0,0 +1,22 @@
+package com.phrontend.springfm.user;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(UserLookupEvent.NAME)
+@Label("User Lookup")
+@Category({"SpringFM", "Users"})
+@StackTrace(false)
+class UserLookupEvent extends Event {
+
+    static final String NAME = "springfm.UserLookup";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Rows Returned")
+    int rowsReturned;
+}
@@ -2,7 +2,12 @@ package com.phrontend.springfm.user;
 
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByEmailIgnoreCase(String email);
+
+    @Query("select u.permissionVersion from UserEntity u where u.id = :id")
+    Optional<Integer> findPermissionVersionById(@Param("id") Long id);
 }
@@ -1,5 +1,16 @@
 package com.phrontend.springfm.user;
 
+import com.phrontend.springfm.diagnostics.RequestTrace;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NonNull;
 import org.springframework.security.core.userdetails.User;
@@ -14,11 +25,12 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
 
     @Override
     @Transactional(readOnly = true)
     public UserDetails loadUserByUsername(@NonNull String email) throws UsernameNotFoundException {
-        UserEntity user = userRepository.findByEmailIgnoreCase(email)
+        UserEntity user = lookup("by-email", () -> userRepository.findByEmailIgnoreCase(email), UserService::rows)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
 
         String[] authorities = user.getCanUpload()
@@ -33,7 +45,57 @@ public class UserService implements UserDetailsService {
 
     @Transactional(readOnly = true)
     public UserEntity requireById(Long id) {
-        return userRepository.findById(id)
+        return lookup("by-id", () -> userRepository.findById(id), UserService::rows)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
+
+    /**
+     * Display names for the given user ids in a single query. Ids that are not numeric or do not
+     * belong to a user are absent from the result.
+     */
+    @Transactional(readOnly = true)
+    public Map<String, String> displayNames(Collection<String> userIds) {
+        List<Long> ids = userIds.stream()
+                .map(UserService::parseId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, String> displayNames = new HashMap<>();
+        if (ids.isEmpty()) {
+            return displayNames;
+        }
+        for (UserEntity user : lookup("display-names", () -> userRepository.findAllById(ids), List::size)) {
+            displayNames.put(String.valueOf(user.getId()), user.getDisplayName());
+        }
+        return displayNames;
+    }
+
+    private <T> T lookup(String operation, Supplier<T> query, ToIntFunction<T> rows) {
+        UserLookupEvent event = new UserLookupEvent();
+        event.begin();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result = query.get();
+        long nanos = sample.stop(meterRegistry.timer("springfm.user.lookup", "operation", operation));
+        event.end();
+        int rowsReturned = rows.applyAsInt(result);
+        RequestTrace.phase("user." + operation, nanos, rowsReturned);
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.rowsReturned = rowsReturned;
+            event.commit();
+        }
+        return result;
+    }
+
+    private static int rows(Optional<UserEntity> user) {
+        return user.isPresent() ? 1 : 0;
+    }
+
+    private static Long parseId(String userId) {
+        try {
+            return userId == null ? null : Long.valueOf(userId);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
 }
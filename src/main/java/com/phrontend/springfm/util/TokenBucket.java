@@ -0,0 +1,86 @@
+package com.phrontend.springfm.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical arrival time" that
+ * moves forward by the cost of each admitted request and is updated with a single CAS. A request
+ * is admitted while that time stays within {@code capacity} tokens of now, so up to
+ * {@code capacity} tokens can be spent at once and they come back at {@code refillPerSecond}.
+ */
+public final class TokenBucket {
+
+    private static final long MAX_INCREMENT = Long.MAX_VALUE / 4;
+
+    private final double nanosPerToken;
+    private final long burstNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong theoreticalArrival;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    TokenBucket(long capacity, double refillPerSecond, LongSupplier nanoClock) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Token bucket capacity and refill rate must be positive");
+        }
+        this.nanosPerToken = 1_000_000_000d / refillPerSecond;
+        this.burstNanos = nanos(capacity);
+        this.nanoClock = nanoClock;
+        this.theoreticalArrival = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * Takes {@code tokens} if they are available.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until they would be
+     */
+    public long tryAcquire(long tokens) {
+        long increment = nanos(tokens);
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + increment;
+            long excess = next - now - burstNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Takes {@code tokens} unconditionally, going into debt if needed. Used when the cost is only
+     * known afterwards, such as the size of a response.
+     */
+    public void charge(long tokens) {
+        long increment = nanos(tokens);
+        theoreticalArrival.accumulateAndGet(nanoClock.getAsLong(),
+                (current, now) -> Math.max(current, now) + increment);
+    }
+
+    /**
+     * Gives back {@code tokens} charged earlier that turned out not to be used, such as the unsent
+     * part of a failed download. Never credits more than a full bucket.
+     */
+    public void refund(long tokens) {
+        long increment = nanos(tokens);
+        theoreticalArrival.accumulateAndGet(nanoClock.getAsLong(),
+                (current, now) -> Math.max(current - increment, now));
+    }
+
+    /** Tokens that could be taken right now; negative while in debt. */
+    public long available() {
+        long now = nanoClock.getAsLong();
+        long used = Math.max(theoreticalArrival.get(), now) - now;
+        return (long) ((burstNanos - used) / nanosPerToken);
+    }
+
+    private long nanos(long tokens) {
+        return (long) Math.min(MAX_INCREMENT, tokens * nanosPerToken);
+    }
+}
@@ -0,0 +1,28 @@
+-- Schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Existing databases are baselined at this version and skip it.
+
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    can_upload BIT NOT NULL,
+    created DATETIME(6) NOT NULL,
+    display_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE=InnoDB;
+
+CREATE TABLE IF NOT EXISTS stored_files (
+    id UUID NOT NULL,
+    category ENUM ('DOCUMENT', 'IMAGE', 'VIDEO', 'AUDIO', 'ARCHIVE', 'CODE', 'OTHER') NOT NULL,
+    content_type VARCHAR(255),
+    file_size BIGINT NOT NULL,
+    filename VARCHAR(255) NOT NULL,
+    metadata_text TEXT,
+    sha256 VARCHAR(255),
+    storage_path VARCHAR(255) NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    uploaded_at DATETIME(6) NOT NULL,
+    uploaded_by VARCHAR(255) NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE=InnoDB;
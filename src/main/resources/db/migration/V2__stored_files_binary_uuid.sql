@@ -0,0 +1,13 @@
+-- Converts stored_files.id from the UUID column created by ddl-auto to a compact BINARY(16).
+-- Byte order is the canonical big-endian form, which keeps UUIDv7 ids sorted by creation time.
+-- Existing random ids keep their value; only new rows get time-ordered ids.
+
+ALTER TABLE stored_files ADD COLUMN id_bin BINARY(16) NULL FIRST;
+
+UPDATE stored_files SET id_bin = UNHEX(REPLACE(CAST(id AS CHAR(36)), '-', ''));
+
+ALTER TABLE stored_files DROP PRIMARY KEY, DROP COLUMN id;
+
+ALTER TABLE stored_files
+    CHANGE COLUMN id_bin id BINARY(16) NOT NULL FIRST,
+    ADD PRIMARY KEY (id);
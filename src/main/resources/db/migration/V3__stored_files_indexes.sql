@@ -0,0 +1,17 @@
+-- Composite indexes for the search and listing access paths. Each ends in id, the tie-breaker
+-- SearchController appends to every sort, so ORDER BY ... LIMIT can be read straight off the index.
+
+-- Default sort (uploadedAt) with and without a category filter
+CREATE INDEX idx_stored_files_uploaded_at ON stored_files (uploaded_at, id);
+CREATE INDEX idx_stored_files_category_uploaded_at ON stored_files (category, uploaded_at, id);
+
+-- Per-uploader listings, newest first
+CREATE INDEX idx_stored_files_uploaded_by_uploaded_at ON stored_files (uploaded_by, uploaded_at, id);
+
+-- Remaining SearchController.SORT_FIELDS; the category and uploadedBy sorts order by (field, id),
+-- which the indexes above cannot serve without a filesort
+CREATE INDEX idx_stored_files_category ON stored_files (category, id);
+CREATE INDEX idx_stored_files_uploaded_by ON stored_files (uploaded_by, id);
+CREATE INDEX idx_stored_files_title ON stored_files (title, id);
+CREATE INDEX idx_stored_files_filename ON stored_files (filename, id);
+CREATE INDEX idx_stored_files_file_size ON stored_files (file_size, id);
@@ -0,0 +1,3 @@
+-- FULLTEXT index for app.search.mode=FULLTEXT. The column list must match the MATCH() call
+-- registered by FullTextFunctionContributor.
+CREATE FULLTEXT INDEX ft_stored_files_text ON stored_files (title, filename, metadata_text);
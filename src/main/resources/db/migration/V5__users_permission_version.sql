@@ -0,0 +1,14 @@
+-- Tokens carry the permission_version they were issued at (claim "pv"); uploads are refused once
+-- it moves on. The trigger bumps it for any change to can_upload, including edits made by hand.
+--
+-- Prerequisite: the migration user needs the TRIGGER privilege. With binary logging enabled, as on
+-- most production servers, MariaDB also refuses CREATE TRIGGER unless that user has SUPER or the
+-- server runs with log_bin_trust_function_creators=1, e.g.
+--   SET GLOBAL log_bin_trust_function_creators = 1;   -- before deploying, as an administrator
+-- Without it this migration fails and Flyway stops at V4.
+ALTER TABLE users ADD COLUMN permission_version INT NOT NULL DEFAULT 0;
+
+CREATE TRIGGER users_permission_version
+    BEFORE UPDATE ON users
+    FOR EACH ROW
+    SET NEW.permission_version = OLD.permission_version + IF(NEW.can_upload <=> OLD.can_upload, 0, 1);
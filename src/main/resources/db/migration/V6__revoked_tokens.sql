@@ -0,0 +1,7 @@
+-- Logged-out tokens by jti, kept until the token would have expired anyway.
+CREATE TABLE revoked_tokens (
+    jti VARCHAR(36) NOT NULL,
+    expires_at DATETIME(6) NOT NULL,
+    PRIMARY KEY (jti),
+    KEY idx_revoked_tokens_expires_at (expires_at)
+) ENGINE=InnoDB;
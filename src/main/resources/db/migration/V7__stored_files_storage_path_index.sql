@@ -0,0 +1,2 @@
+-- Lets the storage scrubber confirm orphan candidates by path without scanning stored_files
+CREATE INDEX idx_stored_files_storage_path ON stored_files (storage_path);
@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -71,10 +72,21 @@ class AuthControllerTest {
     @Test
     void logout_ReturnsOk() {
         // Act
-        ResponseEntity<Void> response = authController.logout();
+        ResponseEntity<Void> response = authController.logout(null);
 
         // Assert
         assertThat(response.getStatusCode().value()).isEqualTo(200);
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void logout_WithBearerToken_RevokesIt() {
+        // Act
+        ResponseEntity<Void> response = authController.logout("Bearer some-token");
+
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        verify(authService).logout("some-token");
     }
 
     @Test
@@ -3,6 +3,8 @@ package com.phrontend.springfm.auth;
 import com.phrontend.springfm.config.JwtProperties;
 import com.phrontend.springfm.user.UserEntity;
 import com.phrontend.springfm.user.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,6 +17,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,6 +45,9 @@ class AuthServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -212,4 +220,30 @@ class AuthServiceTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("User not found");
     }
+
+    @Test
+    void logout_WithValidToken_RevokesItUntilExpiry() {
+        // Arrange
+        Date expiration = Date.from(Instant.now().plusSeconds(60).truncatedTo(ChronoUnit.SECONDS));
+        Claims claims = Jwts.claims().id("jti-1").expiration(expiration).build();
+        when(jwtService.verify("token")).thenReturn(Optional.of(claims));
+
+        // Act
+        authService.logout("token");
+
+        // Assert
+        verify(tokenRevocationService).revoke("jti-1", expiration.toInstant());
+    }
+
+    @Test
+    void logout_WithInvalidToken_DoesNothing() {
+        // Arrange
+        when(jwtService.verify("garbage")).thenReturn(Optional.empty());
+
+        // Act
+        authService.logout("garbage");
+
+        // Assert
+        verifyNoInteractions(tokenRevocationService);
+    }
 }
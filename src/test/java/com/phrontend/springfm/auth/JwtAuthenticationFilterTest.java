@@ -2,6 +2,8 @@ package com.phrontend.springfm.auth;
 
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,6 +11,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -16,6 +19,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.*;
@@ -24,7 +28,13 @@ import static org.mockito.Mockito.*;
 class JwtAuthenticationFilterTest {
 
     @Mock
-    private JwtService jwtService;
+    private JwtClaimsCache jwtClaimsCache;
+
+    @Mock
+    private TokenRevocationService tokenRevocationService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @Mock
     private FilterChain filterChain;
@@ -52,10 +62,10 @@ class JwtAuthenticationFilterTest {
                 .subject("1")
                 .add("email", "test@example.com")
                 .add("canUpload", true)
+                .add("pv", 2)
                 .build();
 
-        when(jwtService.validateToken(token)).thenReturn(true);
-        when(jwtService.parseToken(token)).thenReturn(claims);
+        when(jwtClaimsCache.verify(token)).thenReturn(Optional.of(claims));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -68,6 +78,10 @@ class JwtAuthenticationFilterTest {
         assertThat(authentication.getAuthorities())
                 .extracting("authority")
                 .contains("UPLOAD");
+        assertThat(authentication.getDetails())
+                .isInstanceOfSatisfying(JwtAuthenticationDetails.class,
+                        details -> assertThat(details.getPermissionVersion()).isEqualTo(2));
+        assertThat(meterRegistry.get("springfm.auth.jwt").tag("result", "valid").timer().count()).isEqualTo(1);
 
         verify(filterChain).doFilter(request, response);
     }
@@ -84,8 +98,7 @@ class JwtAuthenticationFilterTest {
                 .add("canUpload", false)
                 .build();
 
-        when(jwtService.validateToken(token)).thenReturn(true);
-        when(jwtService.parseToken(token)).thenReturn(claims);
+        when(jwtClaimsCache.verify(token)).thenReturn(Optional.of(claims));
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -105,7 +118,7 @@ class JwtAuthenticationFilterTest {
         String token = "invalid-jwt-token";
         request.addHeader("Authorization", "Bearer " + token);
 
-        when(jwtService.validateToken(token)).thenReturn(false);
+        when(jwtClaimsCache.verify(token)).thenReturn(Optional.empty());
 
         // Act
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -114,7 +127,6 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertThat(authentication).isNull();
 
-        verify(jwtService, never()).parseToken(anyString());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -127,7 +139,7 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertThat(authentication).isNull();
 
-        verify(jwtService, never()).validateToken(anyString());
+        verify(jwtClaimsCache, never()).verify(anyString());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -143,7 +155,7 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertThat(authentication).isNull();
 
-        verify(jwtService, never()).validateToken(anyString());
+        verify(jwtClaimsCache, never()).verify(anyString());
         verify(filterChain).doFilter(request, response);
     }
 
@@ -159,7 +171,30 @@ class JwtAuthenticationFilterTest {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
         assertThat(authentication).isNull();
 
-        verify(jwtService).validateToken("");
+        verify(jwtClaimsCache).verify("");
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    void doFilterInternal_WithRevokedToken_DoesNotSetAuthentication() throws ServletException, IOException {
+        // Arrange
+        String token = "revoked-jwt-token";
+        request.addHeader("Authorization", "Bearer " + token);
+
+        Claims claims = Jwts.claims()
+                .id("jti-1")
+                .subject("1")
+                .add("canUpload", true)
+                .build();
+
+        when(jwtClaimsCache.verify(token)).thenReturn(Optional.of(claims));
+        when(tokenRevocationService.isRevoked("jti-1")).thenReturn(true);
+
+        // Act
+        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+
+        // Assert
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
         verify(filterChain).doFilter(request, response);
     }
 }
@@ -0,0 +1,123 @@
+package com.phrontend.springfm.auth;
+
+import com.phrontend.springfm.config.JwtProperties;
+import com.phrontend.springfm.user.UserEntity;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class JwtClaimsCacheTest {
+
+    private JwtService jwtService;
+    private MutableClock clock;
+    private JwtClaimsCache jwtClaimsCache;
+
+    @BeforeEach
+    void setUp() {
+        String secret = "test-secret-key-that-is-long-enough-for-hmac-sha256-algorithm";
+        SecretKey secretKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        JwtProperties jwtProperties = new JwtProperties(secret, "test-issuer", Duration.ofHours(1), Duration.ofDays(7));
+        jwtService = spy(new JwtService(
+                secretKey,
+                Jwts.parser().verifyWith(secretKey).requireIssuer("test-issuer").build(),
+                jwtProperties
+        ));
+        clock = new MutableClock(Instant.now());
+        jwtClaimsCache = new JwtClaimsCache(jwtService, 100, new SimpleMeterRegistry(), clock);
+    }
+
+    @Test
+    void verify_SameTokenTwice_VerifiesSignatureOnce() {
+        // Arrange
+        String token = jwtService.generateToken(user(), Duration.ofHours(1));
+
+        // Act
+        Optional<Claims> first = jwtClaimsCache.verify(token);
+        Optional<Claims> second = jwtClaimsCache.verify(token);
+
+        // Assert
+        assertThat(first).isPresent();
+        assertThat(second).containsSame(first.get());
+        verify(jwtService, times(1)).verify(token);
+    }
+
+    @Test
+    void verify_InvalidToken_IsNotCached() {
+        // Act
+        Optional<Claims> first = jwtClaimsCache.verify("invalid.jwt.token");
+        Optional<Claims> second = jwtClaimsCache.verify("invalid.jwt.token");
+
+        // Assert
+        assertThat(first).isEmpty();
+        assertThat(second).isEmpty();
+        verify(jwtService, times(2)).verify("invalid.jwt.token");
+    }
+
+    @Test
+    void verify_AfterTokenExpiry_VerifiesAgain() {
+        // Arrange
+        String token = jwtService.generateToken(user(), Duration.ofHours(1));
+        jwtClaimsCache.verify(token);
+
+        // Act
+        clock.advance(Duration.ofHours(2));
+        jwtClaimsCache.verify(token);
+
+        // Assert
+        verify(jwtService, times(2)).verify(token);
+    }
+
+    private static UserEntity user() {
+        return UserEntity.builder()
+                .id(1L)
+                .email("test@example.com")
+                .displayName("Test User")
+                .canUpload(true)
+                .build();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
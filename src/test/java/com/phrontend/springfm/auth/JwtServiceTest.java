@@ -66,6 +66,8 @@ class JwtServiceTest {
         assertThat(claims.get("email", String.class)).isEqualTo("test@example.com");
         assertThat(claims.get("name", String.class)).isEqualTo("Test User");
         assertThat(claims.get("canUpload", Boolean.class)).isTrue();
+        assertThat(claims.get(JwtService.PERMISSION_VERSION_CLAIM, Integer.class)).isZero();
+        assertThat(claims.getId()).isNotBlank();
         assertThat(claims.getIssuer()).isEqualTo("test-issuer");
         assertThat(claims.getIssuedAt()).isNotNull();
         assertThat(claims.getExpiration()).isNotNull();
@@ -159,4 +161,27 @@ class JwtServiceTest {
         // Assert
         assertThat(isValid).isFalse();
     }
+
+    @Test
+    void verify_WithValidToken_ReturnsClaims() {
+        // Arrange
+        UserEntity user = UserEntity.builder()
+                .id(6L)
+                .email("verify@example.com")
+                .displayName("Verify User")
+                .canUpload(true)
+                .build();
+        String token = jwtService.generateToken(user, Duration.ofHours(1));
+
+        // Act & Assert
+        assertThat(jwtService.verify(token)).hasValueSatisfying(claims ->
+                assertThat(claims.getSubject()).isEqualTo("6"));
+    }
+
+    @Test
+    void verify_WithMalformedOrEmptyToken_ReturnsEmpty() {
+        // Act & Assert
+        assertThat(jwtService.verify("invalid.jwt.token")).isEmpty();
+        assertThat(jwtService.verify("")).isEmpty();
+    }
 }
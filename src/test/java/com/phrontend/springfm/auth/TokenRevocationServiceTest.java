@@ -0,0 +1,99 @@
+package com.phrontend.springfm.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TokenRevocationService(revokedTokenRepository, 1_000, 0.001, new SimpleMeterRegistry(),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void isRevoked_UnknownToken_SkipsDatabase() {
+        // Act & Assert
+        assertThat(service.isRevoked("never-revoked")).isFalse();
+        verify(revokedTokenRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void revoke_ThenIsRevoked_ConfirmsAgainstDatabase() {
+        // Arrange
+        Instant expiresAt = NOW.plus(Duration.ofHours(1));
+        service.revoke("jti-1", expiresAt);
+        ArgumentCaptor<RevokedToken> saved = ArgumentCaptor.forClass(RevokedToken.class);
+        verify(revokedTokenRepository).save(saved.capture());
+        when(revokedTokenRepository.findById("jti-1")).thenReturn(Optional.of(saved.getValue()));
+
+        // Act & Assert
+        assertThat(service.isRevoked("jti-1")).isTrue();
+        assertThat(saved.getValue().getExpiresAt()).isEqualTo(expiresAt);
+    }
+
+    @Test
+    void revoke_AlreadyExpiredToken_IsNotStored() {
+        // Act
+        service.revoke("jti-old", NOW.minusSeconds(1));
+
+        // Assert
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void refresh_LoadsRevocationsFromOtherNodes() {
+        // Arrange
+        when(revokedTokenRepository.findActiveJtis(NOW)).thenReturn(List.of("jti-remote"));
+        when(revokedTokenRepository.findById("jti-remote")).thenReturn(Optional.of(
+                RevokedToken.builder().jti("jti-remote").expiresAt(NOW.plusSeconds(60)).build()));
+
+        // Act
+        service.refresh();
+
+        // Assert
+        assertThat(service.isRevoked("jti-remote")).isTrue();
+    }
+
+    @Test
+    void refresh_KeepsLocalRevocationsNotYetVisibleInSnapshot() {
+        // Arrange
+        service.revoke("jti-local", NOW.plusSeconds(60));
+        when(revokedTokenRepository.findActiveJtis(NOW)).thenReturn(List.of());
+        when(revokedTokenRepository.findById("jti-local")).thenReturn(Optional.of(
+                RevokedToken.builder().jti("jti-local").expiresAt(NOW.plusSeconds(60)).build()));
+
+        // Act
+        service.refresh();
+
+        // Assert
+        assertThat(service.isRevoked("jti-local")).isTrue();
+    }
+}
@@ -0,0 +1,100 @@
+package com.phrontend.springfm.auth;
+
+import com.phrontend.springfm.user.PermissionVersionCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UploadAuthorizationTest {
+
+    @Mock
+    private AuthService authService;
+
+    @Mock
+    private PermissionVersionCache permissionVersionCache;
+
+    @Test
+    void claims_WithCurrentPermissionVersion_AllowsWithoutLoadingUser() {
+        // Arrange
+        UploadAuthorization authorization = authorization(UploadAuthorization.Mode.CLAIMS);
+        when(permissionVersionCache.current(1L)).thenReturn(3);
+
+        // Act & Assert
+        assertThat(authorization.canUpload(authentication("1", true, 3))).isTrue();
+        verifyNoInteractions(authService);
+    }
+
+    @Test
+    void claims_WithStalePermissionVersion_Denies() {
+        // Arrange
+        UploadAuthorization authorization = authorization(UploadAuthorization.Mode.CLAIMS);
+        when(permissionVersionCache.current(1L)).thenReturn(4);
+
+        // Act & Assert
+        assertThat(authorization.canUpload(authentication("1", true, 3))).isFalse();
+    }
+
+    @Test
+    void claims_WithoutUploadAuthority_DeniesWithoutLookups() {
+        // Arrange
+        UploadAuthorization authorization = authorization(UploadAuthorization.Mode.CLAIMS);
+
+        // Act & Assert
+        assertThat(authorization.canUpload(authentication("1", false, 3))).isFalse();
+        verifyNoInteractions(authService, permissionVersionCache);
+    }
+
+    @Test
+    void claims_WithTokenWithoutVersion_FallsBackToDatabase() {
+        // Arrange
+        UploadAuthorization authorization = authorization(UploadAuthorization.Mode.CLAIMS);
+        when(authService.currentUser("1")).thenReturn(new UserResponse("1", "a@example.com", "A", true));
+
+        // Act & Assert
+        assertThat(authorization.canUpload(authentication("1", true, null))).isTrue();
+        verify(permissionVersionCache, never()).current(1L);
+    }
+
+    @Test
+    void database_AlwaysLoadsUser() {
+        // Arrange
+        UploadAuthorization authorization = authorization(UploadAuthorization.Mode.DATABASE);
+        when(authService.currentUser("1")).thenReturn(new UserResponse("1", "a@example.com", "A", false));
+
+        // Act & Assert
+        assertThat(authorization.canUpload(authentication("1", true, 3))).isFalse();
+        verifyNoInteractions(permissionVersionCache);
+    }
+
+    @Test
+    void canUpload_WithoutAuthentication_Denies() {
+        // Act & Assert
+        assertThat(authorization(UploadAuthorization.Mode.CLAIMS).canUpload(null)).isFalse();
+    }
+
+    private UploadAuthorization authorization(UploadAuthorization.Mode mode) {
+        return new UploadAuthorization(mode, authService, permissionVersionCache);
+    }
+
+    private static UsernamePasswordAuthenticationToken authentication(String userId, boolean upload,
+                                                                      Integer permissionVersion) {
+        List<SimpleGrantedAuthority> authorities = upload ? List.of(new SimpleGrantedAuthority("UPLOAD")) : List.of();
+        UsernamePasswordAuthenticationToken authentication =
+                new UsernamePasswordAuthenticationToken(userId, null, authorities);
+        authentication.setDetails(new JwtAuthenticationDetails(new MockHttpServletRequest(), permissionVersion));
+        return authentication;
+    }
+}
@@ -1,9 +1,12 @@
 package com.phrontend.springfm.config;
 
+import com.phrontend.springfm.auth.PasswordHashingBusyException;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
+import java.time.Duration;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -54,4 +57,18 @@ class ApiExceptionHandlerTest {
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
         assertThat(response.getBody()).containsEntry("error", "");
     }
+
+    @Test
+    void handlePasswordHashingBusy_ReturnsTooManyRequestsWithRetryAfter() {
+        // Arrange
+        PasswordHashingBusyException exception = new PasswordHashingBusyException(Duration.ofSeconds(2));
+
+        // Act
+        ResponseEntity<Map<String, String>> response = exceptionHandler.handlePasswordHashingBusy(exception);
+
+        // Assert
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(response.getBody()).containsKey("error");
+    }
 }
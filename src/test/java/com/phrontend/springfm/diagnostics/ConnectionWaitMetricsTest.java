@@ -0,0 +1,104 @@
+package com.phrontend.springfm.diagnostics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class ConnectionWaitMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final IMetricsTracker poolWide = mock(IMetricsTracker.class);
+    private final ConnectionWaitMetrics.PerEndpointTracker tracker =
+            new ConnectionWaitMetrics.PerEndpointTracker(meterRegistry, "main", poolWide);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void currentEndpoint_OutsideARequest_IsBackground() {
+        // Act & Assert
+        assertThat(ConnectionWaitMetrics.currentEndpoint()).isEqualTo(ConnectionWaitMetrics.BACKGROUND);
+    }
+
+    @Test
+    void currentEndpoint_BeforeTheHandlerIsMapped_IsFilters() {
+        // Arrange
+        inRequest(new MockHttpServletRequest("GET", "/api/files/abc/download"));
+
+        // Act & Assert
+        assertThat(ConnectionWaitMetrics.currentEndpoint()).isEqualTo(ConnectionWaitMetrics.FILTERS);
+    }
+
+    @Test
+    void currentEndpoint_InAMappedRequest_IsMethodAndRoutePattern() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/files/abc/download");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/files/{id}/download");
+        inRequest(request);
+
+        // Act & Assert
+        assertThat(ConnectionWaitMetrics.currentEndpoint()).isEqualTo("GET /api/files/{id}/download");
+    }
+
+    @Test
+    void recordConnectionAcquiredNanos_RecordsWaitPerEndpointAndKeepsPoolWideMeters() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/files/upload");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/files/upload");
+        inRequest(request);
+
+        // Act
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(30));
+
+        // Assert
+        verify(poolWide).recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(30));
+        assertThat(meterRegistry.get("springfm.db.connection.wait")
+                .tag("pool", "main").tag("endpoint", "POST /api/files/upload").timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(30);
+    }
+
+    @Test
+    void recordConnectionTimeout_CountsPerEndpointAndKeepsPoolWideMeters() {
+        // Act
+        tracker.recordConnectionTimeout();
+        tracker.recordConnectionTimeout();
+
+        // Assert
+        verify(poolWide, times(2)).recordConnectionTimeout();
+        assertThat(meterRegistry.get("springfm.db.connection.timeouts")
+                .tag("pool", "main").tag("endpoint", ConnectionWaitMetrics.BACKGROUND).counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void otherCallbacks_OnlyReachThePoolWideTracker() {
+        // Act
+        tracker.recordConnectionCreatedMillis(5);
+        tracker.recordConnectionUsageMillis(7);
+        tracker.close();
+
+        // Assert
+        verify(poolWide).recordConnectionCreatedMillis(5);
+        verify(poolWide).recordConnectionUsageMillis(7);
+        verify(poolWide).close();
+        assertThat(meterRegistry.find("springfm.db.connection.wait").timers()).isEmpty();
+    }
+
+    private static void inRequest(MockHttpServletRequest request) {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,68 @@
+package com.phrontend.springfm.diagnostics;
+
+import jdk.jfr.Event;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrPhaseSummaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Name("springfm.TestPhase")
+    static class TestPhaseEvent extends Event {
+        String phase;
+        long bytes;
+    }
+
+    @Name("other.Ignored")
+    static class IgnoredEvent extends Event {
+    }
+
+    @Test
+    void summarize_GroupsSpringFmEventsByPhaseField() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(TestPhaseEvent.class);
+            recording.enable(IgnoredEvent.class);
+            recording.start();
+            emit("hash", 100);
+            emit("hash", 50);
+            emit("store", 10);
+            new IgnoredEvent().commit();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        // Act
+        List<JfrPhaseSummary.PhaseStats> phases = JfrPhaseSummary.summarize(file);
+
+        // Assert
+        assertThat(phases).extracting(JfrPhaseSummary.PhaseStats::phase)
+                .containsExactlyInAnyOrder("TestPhase/hash", "TestPhase/store");
+        JfrPhaseSummary.PhaseStats hash = phases.stream()
+                .filter(stats -> stats.phase().equals("TestPhase/hash"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(hash.count()).isEqualTo(2);
+        assertThat(hash.bytes()).isEqualTo(150);
+        assertThat(hash.max()).isGreaterThanOrEqualTo(hash.p50());
+    }
+
+    private static void emit(String phase, long bytes) {
+        TestPhaseEvent event = new TestPhaseEvent();
+        event.begin();
+        event.phase = phase;
+        event.bytes = bytes;
+        event.commit();
+    }
+}
@@ -0,0 +1,85 @@
+package com.phrontend.springfm.diagnostics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowRequestFilterTest {
+
+    @Test
+    void slowSearch_IsLoggedWithParametersSqlAndPhases() throws Exception {
+        // Arrange
+        SlowRequestLog slowRequestLog = new SlowRequestLog(Duration.ZERO, 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(slowRequestLog, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search");
+        request.addParameter("q", "  Annual   REPORT ");
+        request.addParameter("categories", "DOCUMENT", "IMAGE");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            new SqlCapture().inspect("select * from stored_files");
+            RequestTrace.phase("search", 2_000_000, 7);
+        });
+
+        // Assert
+        assertThat(slowRequestLog.recent()).singleElement().satisfies(slow -> {
+            assertThat(slow.path()).isEqualTo("/api/search");
+            assertThat(slow.parameters()).containsEntry("q", "annual report")
+                    .containsEntry("categories", "DOCUMENT,IMAGE");
+            assertThat(slow.sql()).containsExactly("select * from stored_files");
+            assertThat(slow.rows()).isEqualTo(7);
+            assertThat(slow.phases()).singleElement()
+                    .satisfies(phase -> assertThat(phase.millis()).isEqualTo(2.0));
+        });
+    }
+
+    @Test
+    void fastRequest_IsNotLogged() throws Exception {
+        // Arrange
+        SlowRequestLog slowRequestLog = new SlowRequestLog(Duration.ofMinutes(1), 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(slowRequestLog, true);
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/search"), new MockHttpServletResponse(),
+                (req, res) -> RequestTrace.phase("search", 1, 1));
+
+        // Assert
+        assertThat(slowRequestLog.recent()).isEmpty();
+    }
+
+    @Test
+    void slowDelete_PathIdIsReplaced() throws Exception {
+        // Arrange
+        SlowRequestLog slowRequestLog = new SlowRequestLog(Duration.ZERO, 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(slowRequestLog, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE",
+                "/api/files/0190a6f2-1b2c-7d3e-8f40-123456789abc");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        // Assert
+        assertThat(slowRequestLog.recent()).singleElement()
+                .satisfies(slow -> assertThat(slow.path()).isEqualTo("/api/files/{id}"));
+    }
+
+    @Test
+    void download_IsNotLogged() throws Exception {
+        // Arrange
+        SlowRequestLog slowRequestLog = new SlowRequestLog(Duration.ZERO, 10, new SimpleMeterRegistry());
+        SlowRequestFilter filter = new SlowRequestFilter(slowRequestLog, true);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET",
+                "/api/files/0190a6f2-1b2c-7d3e-8f40-123456789abc/download");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        // Assert
+        assertThat(slowRequestLog.recent()).isEmpty();
+    }
+}
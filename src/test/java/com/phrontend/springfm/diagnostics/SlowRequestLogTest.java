@@ -0,0 +1,54 @@
+package com.phrontend.springfm.diagnostics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowRequestLogTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlowRequestLog slowRequestLog = new SlowRequestLog(Duration.ofMillis(100), 3, meterRegistry);
+
+    @Test
+    void isSlow_ComparesAgainstThreshold() {
+        // Act & Assert
+        assertThat(slowRequestLog.isSlow(Duration.ofMillis(99).toNanos())).isFalse();
+        assertThat(slowRequestLog.isSlow(Duration.ofMillis(100).toNanos())).isTrue();
+    }
+
+    @Test
+    void recent_AfterWrapAround_KeepsNewestFirst() {
+        // Act
+        for (int i = 1; i <= 5; i++) {
+            slowRequestLog.add(request("/api/search/" + i));
+        }
+
+        // Assert
+        assertThat(slowRequestLog.recent())
+                .extracting(SlowRequest::path)
+                .containsExactly("/api/search/5", "/api/search/4", "/api/search/3");
+        assertThat(meterRegistry.get("springfm.slow.requests").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void clear_EmptiesTheBuffer() {
+        // Arrange
+        slowRequestLog.add(request("/api/search"));
+
+        // Act
+        slowRequestLog.clear();
+
+        // Assert
+        assertThat(slowRequestLog.recent()).isEmpty();
+    }
+
+    private static SlowRequest request(String path) {
+        return new SlowRequest(Instant.now(), "GET", path, Map.of(), 200, 150.0, 0, List.of(), List.of(), 0);
+    }
+}
@@ -0,0 +1,83 @@
+package com.phrontend.springfm.diagnostics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class VirtualThreadMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final VirtualThreadMonitor monitor = new VirtualThreadMonitor(Duration.ofMillis(20), meterRegistry);
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void recordPinned_CountsPerSiteAndInTheLastMinute() {
+        // Act
+        monitor.recordPinned("com.example.Driver.read:42", TimeUnit.MILLISECONDS.toNanos(30), 1_000);
+        monitor.recordPinned("com.example.Driver.read:42", TimeUnit.MILLISECONDS.toNanos(80), 1_030);
+        monitor.recordPinned("com.example.Native.call:7", TimeUnit.MILLISECONDS.toNanos(25), 1_059);
+
+        // Assert
+        VirtualThreadReport report = monitor.report();
+        assertThat(report.pinnedTotal()).isEqualTo(3);
+        assertThat(report.pinnedSites().getFirst().frame()).isEqualTo("com.example.Driver.read:42");
+        assertThat(report.pinnedSites().getFirst().count()).isEqualTo(2);
+        assertThat(report.pinnedSites().getFirst().maxMillis()).isEqualTo(80.0);
+        assertThat(monitor.pinnedLastMinute(1_059)).isEqualTo(3);
+        assertThat(monitor.pinnedLastMinute(1_061)).isEqualTo(2);
+        assertThat(meterRegistry.get("springfm.vthreads.pinned").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void recordPinned_BeyondSiteLimit_FoldsIntoOther() {
+        // Act
+        for (int i = 0; i <= VirtualThreadMonitor.MAX_PINNED_SITES; i++) {
+            monitor.recordPinned("com.example.Site.m:" + i, 1, 1_000);
+        }
+
+        // Assert
+        assertThat(monitor.report().pinnedSites())
+                .hasSize(VirtualThreadMonitor.MAX_PINNED_SITES + 1)
+                .anySatisfy(site -> assertThat(site.frame()).isEqualTo(VirtualThreadMonitor.OTHER_SITE));
+    }
+
+    @Test
+    void connectionWait_IsReportedPerEndpoint() {
+        // Arrange
+        ConnectionWaitMetrics.PerEndpointTracker tracker = new ConnectionWaitMetrics.PerEndpointTracker(
+                meterRegistry, "pool", new IMetricsTracker() {
+                });
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/search");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // Act
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(12));
+        RequestContextHolder.resetRequestAttributes();
+        tracker.recordConnectionAcquiredNanos(TimeUnit.MILLISECONDS.toNanos(3));
+        tracker.recordConnectionTimeout();
+
+        // Assert
+        assertThat(monitor.report().connectionWait())
+                .extracting(VirtualThreadReport.ConnectionWait::endpoint, VirtualThreadReport.ConnectionWait::count,
+                        VirtualThreadReport.ConnectionWait::timeouts)
+                .containsExactly(
+                        tuple("GET /api/search", 1L, 0L),
+                        tuple(ConnectionWaitMetrics.BACKGROUND, 1L, 1L));
+    }
+}
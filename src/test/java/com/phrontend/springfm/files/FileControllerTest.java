@@ -5,11 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
 
 import java.time.Instant;
 import java.util.Objects;
@@ -17,6 +25,10 @@ import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +41,12 @@ class FileControllerTest {
     @Mock
     private Resource mockResource;
 
+    @Mock
+    private FileListingService fileListingService;
+
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder().build();
+
     @InjectMocks
     private FileController fileController;
 
@@ -56,8 +74,8 @@ class FileControllerTest {
     @Test
     void download_WithValidId_ReturnsFileResource() {
         // Arrange
-        when(fileService.requireById(testFileId)).thenReturn(testFile);
-        when(fileService.loadAsResource(testFile)).thenReturn(mockResource);
+        when(fileService.requireDownload(testFileId)).thenReturn(DownloadDescriptor.of(testFile));
+        when(fileService.loadAsResource(DownloadDescriptor.of(testFile))).thenReturn(mockResource);
 
         // Act
         ResponseEntity<Resource> response = fileController.download(testFileId, testUserId);
@@ -71,8 +89,8 @@ class FileControllerTest {
         assertThat(response.getHeaders().get(HttpHeaders.CONTENT_DISPOSITION))
                 .contains("attachment; filename=\"test-doc.pdf\"");
 
-        verify(fileService).requireById(testFileId);
-        verify(fileService).loadAsResource(testFile);
+        verify(fileService).requireDownload(testFileId);
+        verify(fileService).loadAsResource(DownloadDescriptor.of(testFile));
     }
 
     @Test
@@ -81,8 +99,8 @@ class FileControllerTest {
         testFile.setContentType("image/jpeg");
         testFile.setFilename("photo.jpg");
         
-        when(fileService.requireById(testFileId)).thenReturn(testFile);
-        when(fileService.loadAsResource(testFile)).thenReturn(mockResource);
+        when(fileService.requireDownload(testFileId)).thenReturn(DownloadDescriptor.of(testFile));
+        when(fileService.loadAsResource(DownloadDescriptor.of(testFile))).thenReturn(mockResource);
 
         // Act
         ResponseEntity<Resource> response = fileController.download(testFileId, testUserId);
@@ -98,8 +116,8 @@ class FileControllerTest {
         // Arrange
         testFile.setContentType(null);
         
-        when(fileService.requireById(testFileId)).thenReturn(testFile);
-        when(fileService.loadAsResource(testFile)).thenReturn(mockResource);
+        when(fileService.requireDownload(testFileId)).thenReturn(DownloadDescriptor.of(testFile));
+        when(fileService.loadAsResource(DownloadDescriptor.of(testFile))).thenReturn(mockResource);
 
         // Act
         ResponseEntity<Resource> response = fileController.download(testFileId, testUserId);
@@ -113,8 +131,8 @@ class FileControllerTest {
         // Arrange
         testFile.setContentType("   ");
         
-        when(fileService.requireById(testFileId)).thenReturn(testFile);
-        when(fileService.loadAsResource(testFile)).thenReturn(mockResource);
+        when(fileService.requireDownload(testFileId)).thenReturn(DownloadDescriptor.of(testFile));
+        when(fileService.loadAsResource(DownloadDescriptor.of(testFile))).thenReturn(mockResource);
 
         // Act
         ResponseEntity<Resource> response = fileController.download(testFileId, testUserId);
@@ -127,7 +145,7 @@ class FileControllerTest {
     void download_WithInvalidId_ThrowsException() {
         // Arrange
         UUID invalidId = UUID.randomUUID();
-        when(fileService.requireById(invalidId))
+        when(fileService.requireDownload(invalidId))
                 .thenThrow(new IllegalArgumentException("File not found"));
 
         // Act & Assert
@@ -135,7 +153,7 @@ class FileControllerTest {
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessage("File not found");
 
-        verify(fileService).requireById(invalidId);
+        verify(fileService).requireDownload(invalidId);
     }
 
     @Test
@@ -143,8 +161,8 @@ class FileControllerTest {
         // Arrange
         testFile.setFileSize(2048000);
         
-        when(fileService.requireById(testFileId)).thenReturn(testFile);
-        when(fileService.loadAsResource(testFile)).thenReturn(mockResource);
+        when(fileService.requireDownload(testFileId)).thenReturn(DownloadDescriptor.of(testFile));
+        when(fileService.loadAsResource(DownloadDescriptor.of(testFile))).thenReturn(mockResource);
 
         // Act
         ResponseEntity<Resource> response = fileController.download(testFileId, testUserId);
@@ -158,8 +176,8 @@ class FileControllerTest {
         // Arrange
         testFile.setFilename("file with spaces & special.pdf");
         
-        when(fileService.requireById(testFileId)).thenReturn(testFile);
-        when(fileService.loadAsResource(testFile)).thenReturn(mockResource);
+        when(fileService.requireDownload(testFileId)).thenReturn(DownloadDescriptor.of(testFile));
+        when(fileService.loadAsResource(DownloadDescriptor.of(testFile))).thenReturn(mockResource);
 
         // Act
         ResponseEntity<Resource> response = fileController.download(testFileId, testUserId);
@@ -177,8 +195,8 @@ class FileControllerTest {
         testFile.setFilename("video.mp4");
         testFile.setCategory(FileCategory.VIDEO);
         
-        when(fileService.requireById(testFileId)).thenReturn(testFile);
-        when(fileService.loadAsResource(testFile)).thenReturn(mockResource);
+        when(fileService.requireDownload(testFileId)).thenReturn(DownloadDescriptor.of(testFile));
+        when(fileService.loadAsResource(DownloadDescriptor.of(testFile))).thenReturn(mockResource);
 
         // Act
         ResponseEntity<Resource> response = fileController.download(testFileId, testUserId);
@@ -194,8 +212,8 @@ class FileControllerTest {
         testFile.setFilename("song.mp3");
         testFile.setCategory(FileCategory.AUDIO);
         
-        when(fileService.requireById(testFileId)).thenReturn(testFile);
-        when(fileService.loadAsResource(testFile)).thenReturn(mockResource);
+        when(fileService.requireDownload(testFileId)).thenReturn(DownloadDescriptor.of(testFile));
+        when(fileService.loadAsResource(DownloadDescriptor.of(testFile))).thenReturn(mockResource);
 
         // Act
         ResponseEntity<Resource> response = fileController.download(testFileId, testUserId);
@@ -203,4 +221,75 @@ class FileControllerTest {
         // Assert
         assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("audio/mpeg"));
     }
+
+    @Test
+    void mine_WithFullPage_ReturnsNextCursor() {
+        // Arrange
+        when(fileListingService.listByUploader(eq(testUserId), isNull(), eq(1))).thenReturn(List.of(testFile));
+
+        // Act
+        ResponseEntity<FilePageResponse> response = fileController.mine(null, 1, testUserId);
+
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        FilePageResponse body = Objects.requireNonNull(response.getBody());
+        assertThat(body.results()).extracting(FileResult::id).containsExactly(testFileId.toString());
+        assertThat(FileCursor.decode(body.nextCursor())).isEqualTo(FileCursor.of(testFile));
+    }
+
+    @Test
+    void mine_WithShortPage_HasNoNextCursor() {
+        // Arrange
+        FileCursor cursor = new FileCursor(Instant.now(), UUID.randomUUID());
+        when(fileListingService.listByUploader(testUserId, cursor, 50)).thenReturn(List.of(testFile));
+
+        // Act
+        ResponseEntity<FilePageResponse> response = fileController.mine(cursor.encode(), 50, testUserId);
+
+        // Assert
+        assertThat(Objects.requireNonNull(response.getBody()).nextCursor()).isNull();
+    }
+
+    @Test
+    void mine_WithoutUser_ReturnsUnauthorized() {
+        // Act
+        ResponseEntity<FilePageResponse> response = fileController.mine(null, 50, null);
+
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(401);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamMine_WritesOneJsonObjectPerLine() throws Exception {
+        // Arrange
+        StoredFile second = StoredFile.builder()
+                .id(UUID.randomUUID())
+                .title("Second")
+                .filename("second.txt")
+                .category(FileCategory.DOCUMENT)
+                .uploadedAt(Instant.now())
+                .uploadedBy(testUserId)
+                .fileSize(1)
+                .storagePath("ab/cd/second.txt")
+                .build();
+        doAnswer(invocation -> {
+            Consumer<StoredFile> action = invocation.getArgument(1);
+            action.accept(testFile);
+            action.accept(second);
+            return null;
+        }).when(fileListingService).forEachByUploader(eq(testUserId), any(Consumer.class));
+
+        // Act
+        ResponseEntity<StreamingResponseBody> response = fileController.streamMine(testUserId);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Objects.requireNonNull(response.getBody()).writeTo(out);
+
+        // Assert
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.parseMediaType("application/x-ndjson"));
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(jsonMapper.readValue(lines[0], FileResult.class).id()).isEqualTo(testFileId.toString());
+        assertThat(jsonMapper.readValue(lines[1], FileResult.class).title()).isEqualTo("Second");
+    }
 }
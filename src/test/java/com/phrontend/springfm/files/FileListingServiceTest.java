@@ -0,0 +1,111 @@
+package com.phrontend.springfm.files;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class FileListingServiceTest {
+
+    @Mock
+    private StoredFileRepository storedFileRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private FileListingService fileListingService;
+
+    @Test
+    void listByUploader_WithoutCursor_StartsAtNewest() {
+        // Arrange
+        StoredFile file = file();
+        when(storedFileRepository.findNewestByUploader("7", Limit.of(20))).thenReturn(List.of(file));
+
+        // Act
+        List<StoredFile> result = fileListingService.listByUploader("7", null, 20);
+
+        // Assert
+        assertThat(result).containsExactly(file);
+    }
+
+    @Test
+    void listByUploader_WithCursor_SeeksPastIt() {
+        // Arrange
+        FileCursor cursor = new FileCursor(Instant.parse("2025-01-01T00:00:00Z"), UUID.randomUUID());
+        when(storedFileRepository.findNewestByUploaderAfter("7", cursor.uploadedAt(), cursor.id(), Limit.of(20)))
+                .thenReturn(List.of());
+
+        // Act
+        List<StoredFile> result = fileListingService.listByUploader("7", cursor, 20);
+
+        // Assert
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void listByUploader_ClampsPageSize() {
+        // Act
+        fileListingService.listByUploader("7", null, 10_000);
+
+        // Assert
+        verify(storedFileRepository).findNewestByUploader("7", Limit.of(FileListingService.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void forEachByUploader_DetachesEachFileAfterUse() {
+        // Arrange
+        StoredFile first = file();
+        StoredFile second = file();
+        when(storedFileRepository.streamByUploader("7")).thenReturn(Stream.of(first, second));
+        List<StoredFile> seen = new ArrayList<>();
+
+        // Act
+        fileListingService.forEachByUploader("7", seen::add);
+
+        // Assert
+        assertThat(seen).containsExactly(first, second);
+        verify(entityManager).detach(first);
+        verify(entityManager).detach(second);
+    }
+
+    @Test
+    void cursor_RoundTripsAndRejectsGarbage() {
+        // Arrange
+        FileCursor cursor = new FileCursor(Instant.parse("2025-01-01T10:15:30.123456Z"), UUID.randomUUID());
+
+        // Act & Assert
+        assertThat(FileCursor.decode(cursor.encode())).isEqualTo(cursor);
+        assertThatThrownBy(() -> FileCursor.decode("not a cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    private static StoredFile file() {
+        return StoredFile.builder()
+                .id(UUID.randomUUID())
+                .title("Title")
+                .filename("file.txt")
+                .category(FileCategory.DOCUMENT)
+                .uploadedAt(Instant.now())
+                .uploadedBy("7")
+                .fileSize(1)
+                .storagePath("ab/cd/file.txt")
+                .build();
+    }
+}
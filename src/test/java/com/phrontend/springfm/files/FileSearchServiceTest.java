@@ -1,27 +1,37 @@
 package com.phrontend.springfm.files;
 
+import com.phrontend.springfm.config.SearchProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.mockito.ArgumentMatchers;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,6 +41,15 @@ class FileSearchServiceTest {
     @Mock
     private StoredFileRepository storedFileRepository;
 
+    @Spy
+    private SearchProperties searchProperties = new SearchProperties(SearchProperties.Mode.LIKE);
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private FileSearchService fileSearchService;
 
@@ -94,6 +113,9 @@ class FileSearchServiceTest {
         assertThat(result.getContent()).containsExactly(testFile1, testFile2);
 
         verify(storedFileRepository).findAll(ArgumentMatchers.<Specification<StoredFile>>any(), eq(pageRequest));
+        assertThat(meterRegistry.get("springfm.search")
+                .tags("operation", "search", "mode", "LIKE")
+                .timer().count()).isEqualTo(1);
     }
 
     @Test
@@ -265,6 +287,54 @@ class FileSearchServiceTest {
         assertThat(suggestions).hasSizeLessThanOrEqualTo(2);
     }
 
+    @Test
+    void search_InFullTextMode_UsesSpecificationQuery() {
+        // Arrange
+        doReturn(SearchProperties.Mode.FULLTEXT).when(searchProperties).mode();
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        when(storedFileRepository.findAll(ArgumentMatchers.<Specification<StoredFile>>any(), eq(pageRequest)))
+                .thenReturn(new PageImpl<>(List.of(testFile1)));
+
+        // Act
+        Page<StoredFile> result = fileSearchService.search("test", List.of(FileCategory.DOCUMENT), pageRequest);
+
+        // Assert
+        assertThat(result.getContent()).containsExactly(testFile1);
+    }
+
+    @Test
+    void suggest_InFullTextMode_QueriesThroughSpecification() {
+        // Arrange
+        doReturn(SearchProperties.Mode.FULLTEXT).when(searchProperties).mode();
+        when(storedFileRepository.findBy(ArgumentMatchers.<Specification<StoredFile>>any(), any()))
+                .thenReturn(List.of(testFile1, testFile2));
+
+        // Act
+        List<String> suggestions = fileSearchService.suggest("test", null);
+
+        // Assert
+        assertThat(suggestions).contains("Test Document", "Test Image");
+        verify(storedFileRepository, never()).findByTitleContainingIgnoreCaseOrFilenameContainingIgnoreCase(
+                any(), any(), any(PageRequest.class));
+    }
+
+    @Test
+    void forEachMatch_StreamsAndDetachesEveryFile() {
+        // Arrange
+        Sort sort = Sort.by("uploadedAt");
+        when(storedFileRepository.streamAll(ArgumentMatchers.<Specification<StoredFile>>any(), eq(sort)))
+                .thenReturn(Stream.of(testFile1, testFile2));
+        List<StoredFile> seen = new ArrayList<>();
+
+        // Act
+        fileSearchService.forEachMatch("test", null, sort, seen::add);
+
+        // Assert
+        assertThat(seen).containsExactly(testFile1, testFile2);
+        verify(entityManager).detach(testFile1);
+        verify(entityManager).detach(testFile2);
+    }
+
     private StoredFile createFile(String title, String filename) {
         return StoredFile.builder()
                 .id(UUID.randomUUID())
@@ -1,13 +1,22 @@
 package com.phrontend.springfm.files;
 
+import com.phrontend.springfm.storage.HotFileCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
@@ -25,6 +34,16 @@ class FileServiceTest {
     @Mock
     private StorageService storageService;
 
+    @Mock
+    private HotFileCache hotFileCache;
+
+    @Spy
+    private DownloadDescriptorCache downloadDescriptorCache =
+            new DownloadDescriptorCache(100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private Resource mockResource;
 
@@ -129,4 +148,123 @@ class FileServiceTest {
         // Assert
         verify(storedFileRepository, times(3)).findById(testFileId);
     }
+
+    @Test
+    void loadAsResource_WithCachedContent_SkipsStorage() throws Exception {
+        // Arrange
+        testFile.setSha256("abc123");
+        when(hotFileCache.accepts(1024)).thenReturn(true);
+        when(hotFileCache.get("abc123"))
+                .thenReturn(ByteBuffer.wrap("cached".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        Resource result = fileService.loadAsResource(testFile);
+
+        // Assert
+        assertThat(result.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("cached");
+        verify(storageService, never()).loadAsResource(anyString());
+    }
+
+    @Test
+    void loadAsResource_WithAdmittedMiss_PopulatesCache() throws Exception {
+        // Arrange
+        testFile.setSha256("abc123");
+        byte[] content = "from disk".getBytes(StandardCharsets.UTF_8);
+        when(hotFileCache.accepts(1024)).thenReturn(true);
+        when(hotFileCache.get("abc123")).thenReturn(null);
+        when(hotFileCache.wouldAdmit("abc123", 1024)).thenReturn(true);
+        when(storageService.loadAsResource("/storage/test-doc.pdf")).thenReturn(mockResource);
+        when(mockResource.getContentAsByteArray()).thenReturn(content);
+
+        // Act
+        Resource result = fileService.loadAsResource(testFile);
+
+        // Assert
+        assertThat(result.getContentAsByteArray()).isEqualTo(content);
+        verify(hotFileCache).put("abc123", content);
+    }
+
+    @Test
+    void requireDownload_CalledMultipleTimes_QueriesRepositoryOnce() {
+        // Arrange
+        when(storedFileRepository.findById(testFileId))
+                .thenReturn(Optional.of(testFile));
+
+        // Act
+        DownloadDescriptor first = fileService.requireDownload(testFileId);
+        DownloadDescriptor second = fileService.requireDownload(testFileId);
+
+        // Assert
+        assertThat(first).isEqualTo(second);
+        assertThat(first.filename()).isEqualTo("test-doc.pdf");
+        assertThat(first.storagePath()).isEqualTo("/storage/test-doc.pdf");
+        verify(storedFileRepository, times(1)).findById(testFileId);
+    }
+
+    @Test
+    void requireDownload_WithNonExistentFile_ThrowsAndDoesNotCache() {
+        // Arrange
+        when(storedFileRepository.findById(testFileId))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileService.requireDownload(testFileId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File not found");
+        assertThatThrownBy(() -> fileService.requireDownload(testFileId))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(storedFileRepository, times(2)).findById(testFileId);
+    }
+
+    @Test
+    void delete_InvalidatesCachedDescriptor() throws Exception {
+        // Arrange
+        testFile.setUploadedBy("123");
+        when(storedFileRepository.findById(testFileId))
+                .thenReturn(Optional.of(testFile));
+        fileService.requireDownload(testFileId);
+
+        // Act
+        fileService.delete(testFileId, "123");
+        fileService.requireDownload(testFileId);
+
+        // Assert
+        verify(storageService).delete("/storage/test-doc.pdf");
+        verify(storedFileRepository).delete(testFile);
+        verify(storedFileRepository, times(3)).findById(testFileId);
+    }
+
+    @Test
+    void upload_RecordsEachStage() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "report.pdf", "application/pdf",
+                "content".getBytes(StandardCharsets.UTF_8));
+        when(storageService.store(any(byte[].class), eq("report.pdf"))).thenReturn("ab/cd/report.pdf");
+        when(storedFileRepository.saveAndFlush(any(StoredFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act
+        StoredFile result = fileService.upload(file, null, null, null, "123");
+
+        // Assert
+        assertThat(result.getStoragePath()).isEqualTo("ab/cd/report.pdf");
+        assertThat(result.getCategory()).isEqualTo(FileCategory.DOCUMENT);
+        for (String stage : new String[]{"read", "hash", "store", "insert"}) {
+            assertThat(meterRegistry.get("springfm.upload.stage").tag("stage", stage).timer().count()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void upload_WhenInsertFails_DeletesStoredBlob() throws Exception {
+        // Arrange
+        MockMultipartFile file = new MockMultipartFile("file", "report.pdf", "application/pdf",
+                "content".getBytes(StandardCharsets.UTF_8));
+        when(storageService.store(any(byte[].class), eq("report.pdf"))).thenReturn("ab/cd/report.pdf");
+        when(storedFileRepository.saveAndFlush(any(StoredFile.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> fileService.upload(file, null, null, null, "123"))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        verify(storageService).delete("ab/cd/report.pdf");
+    }
 }
@@ -0,0 +1,161 @@
+package com.phrontend.springfm.files;
+
+import com.phrontend.springfm.user.UserService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchExportServiceTest {
+
+    private static final Sort SORT = Sort.by(Sort.Direction.DESC, "uploadedAt", "id");
+
+    @Mock
+    private FileSearchService fileSearchService;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    @InjectMocks
+    private SearchExportService searchExportService;
+
+    @Test
+    void export_AsNdjson_WritesOneResultPerLine() throws Exception {
+        // Arrange
+        StoredFile file = file("Report", "report.pdf", "1");
+        matches(List.of(file));
+        when(userService.displayNames(List.of("1"))).thenReturn(Map.of("1", "Alice"));
+
+        // Act
+        String output = export(SearchExportService.Format.NDJSON);
+
+        // Assert
+        String[] lines = output.split("\n");
+        assertThat(lines).hasSize(1);
+        FileResult result = jsonMapper.readValue(lines[0], FileResult.class);
+        assertThat(result.id()).isEqualTo(file.getId().toString());
+        assertThat(result.uploadedBy()).isEqualTo("Alice");
+    }
+
+    @Test
+    void export_AsCsv_WritesHeaderAndEscapesValues() throws Exception {
+        // Arrange
+        StoredFile file = file("Q1, \"final\"", "q1.csv", "1");
+        matches(List.of(file));
+        when(userService.displayNames(List.of("1"))).thenReturn(Map.of());
+
+        // Act
+        String output = export(SearchExportService.Format.CSV);
+
+        // Assert
+        String[] lines = output.split("\n");
+        assertThat(lines[0]).startsWith("id,title,filename");
+        assertThat(lines[1]).startsWith(file.getId() + ",\"Q1, \"\"final\"\"\",q1.csv,DOCUMENT,");
+        assertThat(lines[1]).contains(",Unknown User,1,");
+    }
+
+    @Test
+    void export_AsCsv_NeutralisesFormulaCells() throws Exception {
+        // Arrange
+        StoredFile file = file("=HYPERLINK(\"http://evil\")", "@SUM(A1).csv", "1");
+        matches(List.of(file));
+        when(userService.displayNames(List.of("1"))).thenReturn(Map.of("1", "-Mallory"));
+
+        // Act
+        String output = export(SearchExportService.Format.CSV);
+
+        // Assert
+        String[] lines = output.split("\n");
+        assertThat(lines[1]).startsWith(file.getId() + ",\"'=HYPERLINK(\"\"http://evil\"\")\",'@SUM(A1).csv,DOCUMENT,");
+        assertThat(lines[1]).contains(",'-Mallory,1,");
+    }
+
+    @Test
+    void export_ResolvesDisplayNamesBeforeStreamingInBatchesOfUploaders() throws Exception {
+        // Arrange
+        int uploaders = SearchExportService.BATCH_SIZE + 10;
+        List<StoredFile> files = new ArrayList<>();
+        for (int i = 0; i < uploaders * 2; i++) {
+            files.add(file("File " + i, "file-" + i + ".txt", String.valueOf(i % uploaders)));
+        }
+        matches(files);
+        InOrder inOrder = inOrder(userService, fileSearchService);
+
+        // Act
+        String output = export(SearchExportService.Format.NDJSON);
+
+        // Assert
+        assertThat(output.split("\n")).hasSize(uploaders * 2);
+        inOrder.verify(userService, times(2)).displayNames(anyCollection());
+        inOrder.verify(fileSearchService).forEachMatch(eq("q"), isNull(), eq(SORT), any());
+    }
+
+    @Test
+    void format_WithUnknownValue_ThrowsException() {
+        // Act & Assert
+        assertThat(SearchExportService.Format.parse("csv")).isEqualTo(SearchExportService.Format.CSV);
+        assertThatThrownBy(() -> SearchExportService.Format.parse("xml"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unsupported export format");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void matches(List<StoredFile> files) {
+        when(fileSearchService.matchingUploaders("q", null))
+                .thenReturn(files.stream().map(StoredFile::getUploadedBy).distinct().toList());
+        doAnswer(invocation -> {
+            Consumer<StoredFile> action = invocation.getArgument(3);
+            files.forEach(action);
+            return null;
+        }).when(fileSearchService).forEachMatch(eq("q"), isNull(), eq(SORT), any(Consumer.class));
+    }
+
+    private String export(SearchExportService.Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        searchExportService.export("q", null, SORT, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private static StoredFile file(String title, String filename, String uploadedBy) {
+        return StoredFile.builder()
+                .id(UUID.randomUUID())
+                .title(title)
+                .filename(filename)
+                .category(FileCategory.DOCUMENT)
+                .uploadedAt(Instant.parse("2025-01-01T00:00:00Z"))
+                .uploadedBy(uploadedBy)
+                .fileSize(1)
+                .storagePath("ab/cd/" + filename)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.phrontend.springfm.files;
+
+import com.phrontend.springfm.user.UserEntity;
+import com.phrontend.springfm.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Exports more than one batch from MariaDB and checks that the display-name lookups run on the
+ * export's single connection before the cursor is opened. A statement while the cursor is open makes
+ * the driver read the rest of the result into memory; a second connection per export can exhaust
+ * the pool when many exports run at once.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class SearchExportStreamingTest {
+
+    private static final String SEED_PREFIX = "export-seed-";
+    private static final int ROWS = SearchExportService.BATCH_SIZE * 3;
+
+    @Autowired
+    private SearchExportService searchExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void seed() {
+        user = userRepository.save(UserEntity.builder()
+                .email(SEED_PREFIX + UUID.randomUUID() + "@example.com")
+                .displayName("Exporter")
+                .passwordHash("not-a-real-hash")
+                .canUpload(true)
+                .build());
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{
+                    toBytes(UUID.randomUUID()),
+                    "Exported title " + i,
+                    SEED_PREFIX + i + ".txt",
+                    FileCategory.DOCUMENT.name(),
+                    Timestamp.from(Instant.now().minusSeconds(i)),
+                    String.valueOf(user.getId()),
+                    (long) i,
+                    SEED_PREFIX + i
+            });
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO stored_files (id, title, filename, category, uploaded_at, uploaded_by, file_size, storage_path)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, rows);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stored_files WHERE storage_path LIKE ?", SEED_PREFIX + "%");
+        userRepository.delete(user);
+    }
+
+    @Test
+    void export_ResolvesDisplayNamesOnTheExportConnectionBeforeStreaming() throws Exception {
+        // Arrange
+        List<Connection> streamingConnections = new ArrayList<>();
+        List<Connection> lookupConnections = new ArrayList<>();
+        doAnswer(invocation -> {
+            assertThat(streamingConnections).as("lookup after the first row was written").isEmpty();
+            lookupConnections.add(transactionConnection());
+            return invocation.callRealMethod();
+        }).when(userRepository).findAllById(anyIterable());
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                // Rows are written while the cursor is open, inside the export's transaction
+                if (streamingConnections.isEmpty() && TransactionSynchronizationManager.isActualTransactionActive()) {
+                    try {
+                        streamingConnections.add(transactionConnection());
+                    } catch (SQLException e) {
+                        throw new IOException(e);
+                    }
+                }
+            }
+        };
+
+        // Act
+        searchExportService.export(null, List.of(FileCategory.DOCUMENT), Sort.by(Sort.Direction.DESC, "uploadedAt", "id"),
+                SearchExportService.Format.NDJSON, output);
+
+        // Assert
+        assertThat(streamingConnections).hasSize(1);
+        assertThat(lookupConnections).isNotEmpty().containsOnly(streamingConnections.getFirst());
+    }
+
+    private Connection transactionConnection() throws SQLException {
+        ConnectionHolder holder = (ConnectionHolder) TransactionSynchronizationManager.getResource(dataSource);
+        assertThat(holder).isNotNull();
+        // The pool hands out a new wrapper per checkout; compare the driver connections underneath
+        return holder.getConnection().unwrap(Connection.class);
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,165 @@
+package com.phrontend.springfm.files;
+
+import com.phrontend.springfm.config.StorageProperties;
+import com.phrontend.springfm.storage.LocalStorageBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StorageScrubberTest {
+
+    private static final UUID KEPT_ID = UUID.randomUUID();
+    private static final UUID MISSING_ID = UUID.randomUUID();
+
+    @TempDir
+    Path tempDir;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StoredFileRepository storedFileRepository = mock(StoredFileRepository.class);
+    private final DownloadDescriptorCache downloadDescriptorCache =
+            new DownloadDescriptorCache(100, Duration.ofMinutes(5), meterRegistry);
+    private final StorageScrubLock lock = mock(StorageScrubLock.class);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        blob("ab/cd/kept.txt", Instant.now().minus(Duration.ofDays(2)));
+        blob("ab/ef/orphan.txt", Instant.now().minus(Duration.ofDays(2)));
+        blob("12/34/in-flight.txt", Instant.now());
+        blob("pack/segment-0.pack", Instant.now().minus(Duration.ofDays(2)));
+
+        when(storedFileRepository.count()).thenReturn(2L);
+        when(storedFileRepository.findBlobRefs(any())).thenReturn(List.of(
+                new StoredBlobRef(KEPT_ID, "ab/cd/kept.txt"),
+                new StoredBlobRef(MISSING_ID, "ab/cd/gone.txt")));
+        when(storedFileRepository.existsById(MISSING_ID)).thenReturn(true);
+        when(storedFileRepository.findExistingStoragePaths(anyCollection())).thenReturn(List.of());
+        when(lock.runExclusively(any())).thenAnswer(invocation -> Optional.of(invocation.<Supplier<?>>getArgument(0).get()));
+    }
+
+    @Test
+    void scrub_InReportMode_FindsOrphansAndMissingBlobsWithoutChangingAnything() throws IOException {
+        // Act
+        StorageScrubReport report = scrubber(StorageProperties.ScrubMode.REPORT, 10).scrub();
+
+        // Assert
+        assertThat(report.rowsChecked()).isEqualTo(2);
+        assertThat(report.blobsWalked()).isEqualTo(3);
+        assertThat(report.orphanSamples()).containsExactly("ab/ef/orphan.txt");
+        assertThat(report.missingSamples()).containsExactly("ab/cd/gone.txt");
+        assertThat(tempDir.resolve("ab/ef/orphan.txt")).exists();
+        verify(storedFileRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void scrub_InRepairMode_DeletesOrphansAndDanglingRows() throws IOException {
+        // Act
+        StorageScrubReport report = scrubber(StorageProperties.ScrubMode.REPAIR, 10).scrub();
+
+        // Assert
+        assertThat(report.orphansDeleted()).isEqualTo(1);
+        assertThat(report.rowsDeleted()).isEqualTo(1);
+        assertThat(tempDir.resolve("ab/ef/orphan.txt")).doesNotExist();
+        assertThat(tempDir.resolve("12/34/in-flight.txt")).exists();
+        assertThat(tempDir.resolve("ab/cd/kept.txt")).exists();
+        verify(storedFileRepository).deleteById(MISSING_ID);
+    }
+
+    @Test
+    void scrub_WithMoreMissingRowsThanMaxRepairs_HoldsRowRepairs() throws IOException {
+        // Arrange
+        when(storedFileRepository.findBlobRefs(any())).thenReturn(List.of(
+                new StoredBlobRef(MISSING_ID, "ab/cd/gone.txt"),
+                new StoredBlobRef(UUID.randomUUID(), "ab/cd/also-gone.txt")));
+        when(storedFileRepository.existsById(any())).thenReturn(true);
+
+        // Act
+        StorageScrubReport report = scrubber(StorageProperties.ScrubMode.REPAIR, 1).scrub();
+
+        // Assert
+        assertThat(report.missing()).isEqualTo(2);
+        assertThat(report.missingSamples()).hasSize(1);
+        assertThat(report.repairsHeld()).isTrue();
+        verify(storedFileRepository, never()).deleteById(any());
+    }
+
+    @Test
+    void scrub_WhileAnotherNodeHoldsTheLock_LeavesStorageAlone() throws IOException {
+        // Arrange
+        when(lock.runExclusively(any())).thenReturn(Optional.empty());
+
+        // Act
+        StorageScrubReport report = scrubber(StorageProperties.ScrubMode.REPAIR, 10).scrub();
+
+        // Assert
+        assertThat(report).isNull();
+        assertThat(tempDir.resolve("ab/ef/orphan.txt")).exists();
+        verify(storedFileRepository, never()).findBlobRefs(any());
+    }
+
+    @Test
+    void configureTasks_SchedulesFromSettingsOnlyWhenEnabled() throws IOException {
+        // Arrange
+        ScheduledTaskRegistrar enabled = new ScheduledTaskRegistrar();
+        ScheduledTaskRegistrar disabled = new ScheduledTaskRegistrar();
+
+        // Act
+        scrubber(StorageProperties.ScrubMode.REPORT, 10).configureTasks(enabled);
+        scrubber(false).configureTasks(disabled);
+
+        // Assert
+        assertThat(enabled.getFixedDelayTaskList()).singleElement().satisfies(task -> {
+            assertThat(task.getInitialDelayDuration()).isEqualTo(Duration.ofMinutes(15));
+            assertThat(task.getIntervalDuration()).isEqualTo(Duration.ofHours(24));
+        });
+        assertThat(disabled.getFixedDelayTaskList()).isEmpty();
+    }
+
+    private StorageScrubber scrubber(StorageProperties.ScrubMode mode, int maxRepairs) throws IOException {
+        return scrubber(true, mode, maxRepairs);
+    }
+
+    private StorageScrubber scrubber(boolean enabled) throws IOException {
+        return scrubber(enabled, StorageProperties.ScrubMode.REPORT, 10);
+    }
+
+    private StorageScrubber scrubber(boolean enabled, StorageProperties.ScrubMode mode, int maxRepairs)
+            throws IOException {
+        StorageProperties.Scrub scrub = new StorageProperties.Scrub(enabled, mode, Duration.ofMinutes(15),
+                Duration.ofHours(24), Duration.ofHours(1), 2, 10_000, maxRepairs);
+        StorageProperties properties = new StorageProperties(tempDir.toString(), StorageProperties.Backend.LOCAL,
+                null, null, null, scrub, null);
+        LocalStorageBackend backend = new LocalStorageBackend(tempDir);
+        StorageService storageService = new StorageService(properties, backend, meterRegistry);
+        storageService.init();
+        return new StorageScrubber(storedFileRepository, storageService, backend, downloadDescriptorCache, lock,
+                properties, meterRegistry);
+    }
+
+    private void blob(String key, Instant lastModified) throws IOException {
+        Path path = tempDir.resolve(key);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, key);
+        Files.setLastModifiedTime(path, FileTime.from(lastModified));
+    }
+}
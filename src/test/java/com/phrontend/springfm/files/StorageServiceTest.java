@@ -1,14 +1,19 @@
 package com.phrontend.springfm.files;
 
 import com.phrontend.springfm.config.StorageProperties;
+import com.phrontend.springfm.storage.LocalStorageBackend;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import org.springframework.core.io.Resource;
+import org.springframework.util.unit.DataSize;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -18,12 +23,14 @@ class StorageServiceTest {
     @TempDir
     Path tempDir;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     private StorageService storageService;
 
     @BeforeEach
     void setUp() throws IOException {
         StorageProperties properties = new StorageProperties(tempDir.toString());
-        storageService = new StorageService(properties);
+        storageService = new StorageService(properties, new LocalStorageBackend(tempDir), meterRegistry);
         storageService.init();
     }
 
@@ -125,4 +132,71 @@ class StorageServiceTest {
         assertThat(resource).isNotNull();
         assertThat(resource.exists()).isTrue();
     }
+
+    @Test
+    void store_ThenLoadAsResource_ReturnsStoredContent() throws IOException {
+        // Act
+        String storagePath = storageService.store("stored content".getBytes(StandardCharsets.UTF_8), "notes.txt");
+        Resource resource = storageService.loadAsResource(storagePath);
+
+        // Assert
+        assertThat(storagePath).endsWith("-notes.txt");
+        assertThat(resource.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("stored content");
+    }
+
+    @Test
+    void storeAndLoad_RecordTimersAndBytes() throws IOException {
+        // Arrange
+        String storagePath = storageService.store(new byte[100], "data.bin");
+
+        // Act
+        storageService.loadAsResource(storagePath).getContentAsByteArray();
+
+        // Assert
+        assertThat(meterRegistry.get("springfm.storage").tag("operation", "store").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("springfm.storage").tag("operation", "load").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("springfm.storage.bytes").tag("operation", "store").counter().count()).isEqualTo(100);
+        assertThat(meterRegistry.get("springfm.storage.bytes").tag("operation", "load").counter().count()).isEqualTo(100);
+    }
+
+    @Test
+    void store_WithPackEnabledAndSmallFile_StoresInPack() throws IOException {
+        // Arrange
+        StorageProperties.Pack pack = new StorageProperties.Pack(
+                true, DataSize.ofKilobytes(1), DataSize.ofMegabytes(1), 0.5, Duration.ofMinutes(10));
+        StorageProperties properties = new StorageProperties(
+                tempDir.toString(), StorageProperties.Backend.LOCAL, null, pack, null, null, null);
+        StorageService packed = new StorageService(properties, new LocalStorageBackend(tempDir), meterRegistry);
+        packed.init();
+
+        // Act
+        String small = packed.store("tiny".getBytes(StandardCharsets.UTF_8), "tiny.txt");
+        String large = packed.store(new byte[2048], "large.bin");
+
+        // Assert
+        assertThat(small).startsWith("pack/");
+        assertThat(large).endsWith("-large.bin");
+        assertThat(packed.loadAsResource(small).getContentAsString(StandardCharsets.UTF_8)).isEqualTo("tiny");
+
+        packed.delete(small);
+        assertThatThrownBy(() -> packed.loadAsResource(small))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File not found");
+        packed.close();
+    }
+
+    @Test
+    void init_WithPackEnabledOnNonLocalBackend_Fails() {
+        // Arrange
+        StorageProperties.Pack pack = new StorageProperties.Pack(
+                true, DataSize.ofKilobytes(1), DataSize.ofMegabytes(1), 0.5, Duration.ofMinutes(10));
+        StorageProperties properties = new StorageProperties(
+                tempDir.toString(), StorageProperties.Backend.SHARDED, null, pack, null, null, null);
+        StorageService packed = new StorageService(properties, new LocalStorageBackend(tempDir), meterRegistry);
+
+        // Act & Assert
+        assertThatThrownBy(packed::init)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("LOCAL");
+    }
 }
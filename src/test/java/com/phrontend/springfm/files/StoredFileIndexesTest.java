@@ -0,0 +1,166 @@
+package com.phrontend.springfm.files;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the queries generated for search and listing against a seeded stored_files table and checks
+ * that each is served by the intended index with the intended access type, reading a small fraction
+ * of the seeded rows.
+ */
+@ActiveProfiles("test")
+@SpringBootTest
+class StoredFileIndexesTest {
+
+    private static final String SEED_PREFIX = "explain-seed-";
+    private static final int ROWS = 5_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        FileCategory[] categories = FileCategory.values();
+        Instant start = Instant.now().minus(30, ChronoUnit.DAYS);
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(new Object[]{
+                    toBytes(UUID.randomUUID()),
+                    "Seeded title " + i,
+                    "seeded-" + i + ".txt",
+                    categories[i % categories.length].name(),
+                    Timestamp.from(start.plusSeconds(i * 60L)),
+                    SEED_PREFIX + (i % 50),
+                    (long) i * 100,
+                    "seed/" + i
+            });
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO stored_files (id, title, filename, category, uploaded_at, uploaded_by, file_size, storage_path)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?)
+                """, rows);
+        jdbcTemplate.execute("ANALYZE TABLE stored_files");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stored_files WHERE uploaded_by LIKE ?", SEED_PREFIX + "%");
+    }
+
+    @Test
+    void singleCategorySortedByUploadDate_ReadsCategoryIndexInOrder() {
+        Map<String, Object> plan = analyze("""
+                SELECT id FROM stored_files
+                WHERE category IN ('DOCUMENT')
+                ORDER BY uploaded_at DESC, id DESC LIMIT 20
+                """);
+
+        assertPlan(plan, "ref", "idx_stored_files_category_uploaded_at", 20);
+        assertThat(String.valueOf(plan.get("Extra"))).doesNotContain("filesort");
+    }
+
+    @Test
+    void categoryFilterSortedByUploadDate_UsesCategoryIndexRange() {
+        Map<String, Object> plan = analyze("""
+                SELECT id FROM stored_files
+                WHERE category IN ('DOCUMENT', 'IMAGE')
+                ORDER BY uploaded_at DESC, id DESC LIMIT 20
+                """);
+
+        // Two of the seven categories, not the whole table
+        assertPlan(plan, "range", "idx_stored_files_category_uploaded_at", ROWS / 2);
+    }
+
+    @Test
+    void uploaderListing_UsesUploadedByIndex() {
+        Map<String, Object> plan = analyze("""
+                SELECT id FROM stored_files
+                WHERE uploaded_by = 'explain-seed-7'
+                ORDER BY uploaded_at DESC, id DESC LIMIT 50
+                """);
+
+        assertPlan(plan, "ref", "idx_stored_files_uploaded_by_uploaded_at", 50);
+        assertThat(String.valueOf(plan.get("Extra"))).doesNotContain("filesort");
+    }
+
+    @Test
+    void uploadDateRange_UsesUploadedAtIndexRange() {
+        Map<String, Object> plan = analyze("""
+                SELECT id FROM stored_files
+                WHERE uploaded_at >= NOW() - INTERVAL 1 DAY
+                ORDER BY uploaded_at DESC, id DESC LIMIT 20
+                """);
+
+        assertPlan(plan, "range", "idx_stored_files_uploaded_at", 20);
+    }
+
+    @Test
+    void sortByFileSize_ReadsIndexInOrderWithoutFilesort() {
+        Map<String, Object> plan = analyze("""
+                SELECT id FROM stored_files
+                ORDER BY file_size DESC, id DESC LIMIT 20
+                """);
+
+        // No predicate, so the plan is an index scan; it must stop at the LIMIT rather than read the table
+        assertPlan(plan, "index", "idx_stored_files_file_size", 20);
+        assertThat(String.valueOf(plan.get("Extra"))).doesNotContain("filesort");
+    }
+
+    @Test
+    void sortByCategory_ReadsIndexInOrderWithoutFilesort() {
+        Map<String, Object> plan = analyze("""
+                SELECT id FROM stored_files
+                ORDER BY category DESC, id DESC LIMIT 20
+                """);
+
+        assertPlan(plan, "index", "idx_stored_files_category", 20);
+        assertThat(String.valueOf(plan.get("Extra"))).doesNotContain("filesort");
+    }
+
+    @Test
+    void sortByUploader_ReadsIndexInOrderWithoutFilesort() {
+        Map<String, Object> plan = analyze("""
+                SELECT id FROM stored_files
+                ORDER BY uploaded_by DESC, id DESC LIMIT 20
+                """);
+
+        assertPlan(plan, "index", "idx_stored_files_uploaded_by", 20);
+        assertThat(String.valueOf(plan.get("Extra"))).doesNotContain("filesort");
+    }
+
+    /**
+     * Runs the query under MariaDB's ANALYZE, which adds the rows actually read ({@code r_rows}) to the plan.
+     */
+    private Map<String, Object> analyze(String sql) {
+        return jdbcTemplate.queryForMap("ANALYZE " + sql);
+    }
+
+    private static void assertPlan(Map<String, Object> plan, String type, String key, long maxRowsRead) {
+        assertThat(plan.get("type")).isEqualTo(type);
+        assertThat(plan.get("key")).isEqualTo(key);
+        assertThat(((Number) plan.get("r_rows")).doubleValue()).isLessThanOrEqualTo(maxRowsRead);
+    }
+
+    private static byte[] toBytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -2,6 +2,7 @@ package com.phrontend.springfm.files;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Path;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
@@ -192,4 +193,50 @@ class StoredFileSpecificationsTest {
         verify(root).get("category");
         verify(categoryPath).in(allCategories);
     }
+
+    @Test
+    void toBooleanQuery_RequiresEveryWordAsPrefix() {
+        // Act & Assert
+        assertThat(StoredFileSpecifications.toBooleanQuery("Annual Report"))
+                .isEqualTo("+annual* +report*");
+    }
+
+    @Test
+    void toBooleanQuery_DropsOperatorsAndShortWords() {
+        // Act & Assert
+        assertThat(StoredFileSpecifications.toBooleanQuery("-secret* \"q4\" (budget) ~ab budget"))
+                .isEqualTo("+secret* +budget*");
+    }
+
+    @Test
+    void matchesFullText_WithOnlyShortWords_FallsBackToLike() {
+        // Arrange
+        when(criteriaBuilder.like(any(), anyString())).thenReturn(predicate);
+        when(criteriaBuilder.or(any(), any(), any())).thenReturn(predicate);
+
+        // Act
+        Predicate result = StoredFileSpecifications.matchesFullText("q4").toPredicate(root, query, criteriaBuilder);
+
+        // Assert
+        assertThat(result).isEqualTo(predicate);
+        verify(criteriaBuilder, atLeast(3)).like(any(), eq("%q4%"));
+        verify(criteriaBuilder, never()).function(anyString(), any(), any(Expression[].class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void matchesFullText_UsesMatchAgainstFunction() {
+        // Arrange
+        Expression<Double> score = mock(Expression.class);
+        when(criteriaBuilder.function(eq(FullTextFunctionContributor.MATCH_AGAINST), eq(Double.class), any(), any(), any(), any()))
+                .thenReturn(score);
+        when(criteriaBuilder.greaterThan(score, 0.0)).thenReturn(predicate);
+
+        // Act
+        Predicate result = StoredFileSpecifications.matchesFullText("annual report").toPredicate(root, query, criteriaBuilder);
+
+        // Assert
+        assertThat(result).isEqualTo(predicate);
+        verify(criteriaBuilder).literal("+annual* +report*");
+    }
 }
@@ -0,0 +1,111 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.BandwidthProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BandwidthShaperTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicLong slept = new AtomicLong();
+
+    @Test
+    void rateFor_SplitsGlobalAndPerClientLimitsAcrossActiveTransfers() {
+        // Arrange
+        BandwidthShaper shaper = shaper(1_000, 300, 0);
+
+        // Act
+        BandwidthShaper.Transfer alice1 = shaper.start("alice");
+        BandwidthShaper.Transfer alice2 = shaper.start("alice");
+        BandwidthShaper.Transfer bob = shaper.start("bob");
+
+        // Assert
+        assertThat(shaper.rateFor("alice")).isEqualTo(150);
+        assertThat(shaper.rateFor("bob")).isEqualTo(300);
+
+        alice1.close();
+        alice2.close();
+        assertThat(shaper.rateFor("bob")).isEqualTo(300);
+        bob.close();
+        assertThat(shaper.activeTransfers()).isZero();
+    }
+
+    @Test
+    void rateFor_WithoutLimits_IsUnlimited() {
+        // Arrange
+        BandwidthShaper shaper = shaper(0, 0, 0);
+
+        // Act & Assert
+        assertThat(shaper.rateFor("anyone")).isInfinite();
+    }
+
+    @Test
+    void pace_SleepsSoThatBytesFollowTheRate() throws IOException {
+        // Arrange
+        BandwidthShaper shaper = shaper(1_000, 0, 0);
+
+        // Act
+        try (BandwidthShaper.Transfer transfer = shaper.start("alice")) {
+            for (int i = 0; i < 5; i++) {
+                transfer.pace(500);
+            }
+        }
+
+        // Assert: 2500 bytes at 1000 B/s, the first chunk goes out immediately
+        assertThat(slept.get()).isEqualTo(2_000_000_000L);
+    }
+
+    @Test
+    void pacedResponse_BelowBypassThreshold_IsNotShaped() throws IOException {
+        // Arrange
+        BandwidthShaper shaper = shaper(10, 0, 1_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        try (PacedResponse paced = new PacedResponse(response, shaper, "alice", 1_000)) {
+            paced.setContentLength(100);
+            paced.getOutputStream().write(new byte[100]);
+            assertThat(shaper.activeTransfers()).isZero();
+        }
+
+        // Assert
+        assertThat(response.getContentAsByteArray()).hasSize(100);
+        assertThat(slept.get()).isZero();
+    }
+
+    @Test
+    void pacedResponse_AboveBypassThreshold_IsShapedAndReleasedOnClose() throws IOException {
+        // Arrange
+        BandwidthShaper shaper = shaper(PacedResponse.CHUNK_SIZE, 0, 1_000);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int size = PacedResponse.CHUNK_SIZE * 3;
+
+        // Act
+        try (PacedResponse paced = new PacedResponse(response, shaper, "alice", 1_000)) {
+            paced.setContentLength(size);
+            paced.getOutputStream().write(new byte[size]);
+            assertThat(shaper.activeTransfers()).isEqualTo(1);
+        }
+
+        // Assert: three chunks at one chunk per second
+        assertThat(response.getContentAsByteArray()).hasSize(size);
+        assertThat(slept.get()).isEqualTo(2_000_000_000L);
+        assertThat(shaper.activeTransfers()).isZero();
+    }
+
+    private BandwidthShaper shaper(long global, long perClient, long bypassBelow) {
+        BandwidthProperties properties = new BandwidthProperties(true, DataSize.ofBytes(global),
+                DataSize.ofBytes(perClient), DataSize.ofBytes(bypassBelow));
+        return new BandwidthShaper(properties, new SimpleMeterRegistry(), now::get, nanos -> {
+            slept.addAndGet(nanos);
+            now.addAndGet(nanos);
+        });
+    }
+}
@@ -0,0 +1,218 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.BandwidthProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class BandwidthShapingFilterTest {
+
+    private static final long ONE_MB = DataSize.ofMegabytes(1).toBytes();
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicLong slept = new AtomicLong();
+    private final BandwidthProperties properties = new BandwidthProperties(true, DataSize.ofKilobytes(64),
+            DataSize.ofBytes(0), DataSize.ofMegabytes(1));
+    private final BandwidthShaper shaper = new BandwidthShaper(properties, new SimpleMeterRegistry(), now::get,
+            nanos -> {
+                slept.addAndGet(nanos);
+                now.addAndGet(nanos);
+            });
+    private final BandwidthShapingFilter filter = new BandwidthShapingFilter(shaper, properties);
+    private final FilterChain filterChain = mock(FilterChain.class);
+
+    @Test
+    void download_JustBelowOneMegabyte_IsSentUnshaped() throws Exception {
+        // Arrange
+        writesBody(ONE_MB - 1, ONE_MB - 1);
+
+        // Act
+        MockHttpServletResponse response = download();
+
+        // Assert
+        assertThat(response.getContentAsByteArray()).hasSize((int) ONE_MB - 1);
+        assertThat(slept.get()).isZero();
+    }
+
+    @Test
+    void download_OfOneMegabyte_IsShaped() throws Exception {
+        // Arrange
+        writesBody(ONE_MB, ONE_MB);
+
+        // Act
+        MockHttpServletResponse response = download();
+
+        // Assert: 1 MB at 64 KB/s, the first chunk goes out immediately
+        assertThat(response.getContentAsByteArray()).hasSize((int) ONE_MB);
+        assertThat(slept.get()).isEqualTo(16_000_000_000L - 250_000_000L);
+        assertThat(shaper.activeTransfers()).isZero();
+    }
+
+    @Test
+    void download_WithoutContentLength_IsShaped() throws Exception {
+        // Arrange
+        writesBody(-1, PacedResponse.CHUNK_SIZE * 2);
+
+        // Act
+        download();
+
+        // Assert
+        assertThat(slept.get()).isPositive();
+    }
+
+    @Test
+    void pacedWrite_IsSplitIntoChunksEachFlushed() throws Exception {
+        // Arrange
+        RecordingResponse response = new RecordingResponse(new MockHttpServletResponse());
+        int size = PacedResponse.CHUNK_SIZE * 3 + 100;
+
+        // Act
+        try (PacedResponse paced = new PacedResponse(response, shaper, "alice", 0)) {
+            paced.getOutputStream().write(new byte[size]);
+        }
+
+        // Assert
+        assertThat(response.writes).containsExactly(PacedResponse.CHUNK_SIZE, PacedResponse.CHUNK_SIZE,
+                PacedResponse.CHUNK_SIZE, 100);
+        assertThat(response.flushesAfterWrite).containsExactly(1, 2, 3, 4);
+    }
+
+    @Test
+    void download_FailingInTheChain_LeavesTheActiveCount() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setContentLengthLong(ONE_MB * 2);
+            response.getOutputStream().write(new byte[PacedResponse.CHUNK_SIZE]);
+            assertThat(shaper.activeTransfers()).isEqualTo(1);
+            throw new IllegalStateException("Storage read failed");
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act & Assert
+        assertThatThrownBy(this::download).isInstanceOf(IllegalStateException.class);
+        assertThat(shaper.activeTransfers()).isZero();
+        assertThat(shaper.rateFor("ip:10.0.0.1")).isEqualTo(DataSize.ofKilobytes(64).toBytes());
+    }
+
+    @Test
+    void download_AbortedByTheClient_LeavesTheActiveCount() throws Exception {
+        // Arrange
+        RecordingResponse response = new RecordingResponse(new MockHttpServletResponse());
+        response.failWritesAfter = 2;
+        doAnswer(invocation -> {
+            HttpServletResponse paced = invocation.getArgument(1);
+            paced.setContentLengthLong(ONE_MB * 2);
+            paced.getOutputStream().write(new byte[(int) ONE_MB * 2]);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act & Assert
+        assertThatThrownBy(() -> filter.doFilter(request("/api/files/abc/download"), response, filterChain))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Broken pipe");
+        assertThat(response.writes).hasSize(2);
+        assertThat(shaper.activeTransfers()).isZero();
+    }
+
+    @Test
+    void nonDownloadRequests_AreNotWrapped() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        filter.doFilter(request("/api/search"), response, filterChain);
+
+        // Assert
+        verify(filterChain).doFilter(any(), same(response));
+    }
+
+    private void writesBody(long contentLength, long bytes) throws Exception {
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            }
+            response.getOutputStream().write(new byte[(int) bytes]);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse download() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request("/api/files/abc/download"), response, filterChain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+
+    /**
+     * Records the size of every write reaching the container and how many writes preceded each
+     * flush; optionally fails like a client that hung up.
+     */
+    private static final class RecordingResponse extends HttpServletResponseWrapper {
+
+        private final List<Integer> writes = new ArrayList<>();
+        private final List<Integer> flushesAfterWrite = new ArrayList<>();
+        private int failWritesAfter = Integer.MAX_VALUE;
+
+        private RecordingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(int b) throws IOException {
+                    write(new byte[]{(byte) b}, 0, 1);
+                }
+
+                @Override
+                public void write(byte[] bytes, int offset, int length) throws IOException {
+                    if (writes.size() >= failWritesAfter) {
+                        throw new IOException("Broken pipe");
+                    }
+                    writes.add(length);
+                }
+
+                @Override
+                public void flush() {
+                    flushesAfterWrite.add(writes.size());
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                }
+            };
+        }
+    }
+}
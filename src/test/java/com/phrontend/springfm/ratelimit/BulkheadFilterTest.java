@@ -0,0 +1,201 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.BulkheadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BulkheadFilterTest {
+
+    private static final Duration MAX_WAIT = Duration.ofMillis(10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Bulkheads bulkheads;
+    private BulkheadFilter filter;
+    private FilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        BulkheadProperties properties = new BulkheadProperties(true,
+                new BulkheadProperties.Limits(1, 0, MAX_WAIT, BulkheadProperties.DatabaseScope.REQUEST),
+                new BulkheadProperties.Limits(1, 1, MAX_WAIT, BulkheadProperties.DatabaseScope.REQUEST),
+                new BulkheadProperties.Limits(0, 1, MAX_WAIT, BulkheadProperties.DatabaseScope.REQUEST),
+                new BulkheadProperties.Limits(1, 0, MAX_WAIT, BulkheadProperties.DatabaseScope.REQUEST));
+        bulkheads = new Bulkheads(properties, meterRegistry);
+        filter = new BulkheadFilter(bulkheads);
+        filterChain = mock(FilterChain.class);
+    }
+
+    @Test
+    void search_WhenDatabaseBulkheadFull_Returns503WithRetryAfter() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        try (Bulkhead.Permit held = bulkheads.acquire(Bulkheads.TrafficClass.SEARCH, Bulkheads.Resource.DATABASE)) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/search"), response, filterChain);
+        }
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        verify(filterChain, never()).doFilter(any(), any());
+        assertThat(meterRegistry.get("springfm.bulkhead.rejected").tags("class", "search", "resource", "database")
+                .counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void fullUploadBulkhead_DoesNotAffectSearch() throws Exception {
+        // Arrange
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        try (Bulkhead.Permit held = bulkheads.acquireForRequest(Bulkheads.TrafficClass.UPLOAD)) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/api/search"), response, filterChain);
+        }
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(200);
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void doFilter_ReleasesPermitsWhenRequestCompletes() throws Exception {
+        // Act
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/files/upload"), new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertThat(meterRegistry.get("springfm.bulkhead.active").tags("class", "upload", "resource", "disk")
+                .gauge().value()).isZero();
+        assertThat(meterRegistry.get("springfm.bulkhead.active").tags("class", "upload", "resource", "database")
+                .gauge().value()).isZero();
+    }
+
+    @Test
+    void doFilter_RecordsTrafficClassForPerConnectionPermits() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/files/upload");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertThat(request.getAttribute(BulkheadFilter.TRAFFIC_CLASS_ATTRIBUTE)).isEqualTo(Bulkheads.TrafficClass.UPLOAD);
+    }
+
+    @Test
+    void asyncExport_HoldsPermitUntilAsyncRequestCompletes() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search/export");
+        request.setAsyncSupported(true);
+        doAnswer(invocation -> {
+            HttpServletRequest req = invocation.getArgument(0);
+            req.startAsync();
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        double activeWhileStreaming = activeSearchDatabasePermits();
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+
+        // Assert
+        assertThat(activeWhileStreaming).isEqualTo(1);
+        assertThat(activeSearchDatabasePermits()).isZero();
+    }
+
+    @Test
+    void download_HoldsDiskPermitUntilTheBodyIsCopied() throws Exception {
+        // Arrange
+        double[] activeDuringBody = new double[1];
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.getOutputStream().write(new byte[16]);
+            activeDuringBody[0] = activeDownloadDiskPermits();
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/files/abc/download"), new MockHttpServletResponse(),
+                filterChain);
+
+        // Assert
+        assertThat(activeDuringBody[0]).isEqualTo(1);
+        assertThat(activeDownloadDiskPermits()).isZero();
+    }
+
+    @Test
+    void acquireForRequest_WhenDatabaseFull_ReleasesDiskPermit() {
+        // Arrange
+        Bulkhead.Permit held = bulkheads.acquire(Bulkheads.TrafficClass.UPLOAD, Bulkheads.Resource.DATABASE);
+
+        // Act & Assert
+        assertThatThrownBy(() -> bulkheads.acquireForRequest(Bulkheads.TrafficClass.UPLOAD))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(meterRegistry.get("springfm.bulkhead.active").tags("class", "upload", "resource", "disk")
+                .gauge().value()).isZero();
+        held.close();
+    }
+
+    @Test
+    void callScope_TakesDatabasePermitPerConnectionOnly() {
+        // Arrange
+        SimpleMeterRegistry callScopeRegistry = new SimpleMeterRegistry();
+        Bulkheads callScope = new Bulkheads(new BulkheadProperties(true, null,
+                new BulkheadProperties.Limits(1, 1, MAX_WAIT, BulkheadProperties.DatabaseScope.CALL), null, null),
+                callScopeRegistry);
+
+        // Act
+        try (Bulkhead.Permit request = callScope.acquireForRequest(Bulkheads.TrafficClass.UPLOAD)) {
+            double databaseDuringRequest = callScopeRegistry.get("springfm.bulkhead.active")
+                    .tags("class", "upload", "resource", "database").gauge().value();
+            try (Bulkhead.Permit connection = callScope.acquireForConnection(Bulkheads.TrafficClass.UPLOAD)) {
+
+                // Assert
+                assertThat(databaseDuringRequest).isZero();
+                assertThatThrownBy(() -> callScope.acquireForConnection(Bulkheads.TrafficClass.UPLOAD))
+                        .isInstanceOf(BulkheadFullException.class);
+            }
+        }
+        assertThat(bulkheads.acquireForConnection(Bulkheads.TrafficClass.SEARCH)).isSameAs(Bulkhead.Permit.NONE);
+    }
+
+    @Test
+    void trafficClass_ClassifiesEndpoints() {
+        // Act & Assert
+        assertThat(BulkheadFilter.trafficClass(new MockHttpServletRequest("GET", "/api/search/suggest")))
+                .isEqualTo(Bulkheads.TrafficClass.SEARCH);
+        assertThat(BulkheadFilter.trafficClass(new MockHttpServletRequest("GET", "/api/files/abc/download")))
+                .isEqualTo(Bulkheads.TrafficClass.DOWNLOAD);
+        assertThat(BulkheadFilter.trafficClass(new MockHttpServletRequest("POST", "/api/auth/login")))
+                .isEqualTo(Bulkheads.TrafficClass.AUTH);
+        assertThat(BulkheadFilter.trafficClass(new MockHttpServletRequest("GET", "/api/files/mine"))).isNull();
+    }
+
+    private double activeSearchDatabasePermits() {
+        return meterRegistry.get("springfm.bulkhead.active").tags("class", "search", "resource", "database")
+                .gauge().value();
+    }
+
+    private double activeDownloadDiskPermits() {
+        return meterRegistry.get("springfm.bulkhead.active").tags("class", "download", "resource", "disk")
+                .gauge().value();
+    }
+}
@@ -0,0 +1,103 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.BulkheadProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PerConnectionBulkheadTest {
+
+    private static final Duration MAX_WAIT = Duration.ofMillis(10);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DataSource target = mock(DataSource.class);
+    private DataSource dataSource;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws SQLException {
+        Bulkheads bulkheads = new Bulkheads(new BulkheadProperties(true,
+                new BulkheadProperties.Limits(1, 0, MAX_WAIT, BulkheadProperties.DatabaseScope.REQUEST),
+                new BulkheadProperties.Limits(1, 1, MAX_WAIT, BulkheadProperties.DatabaseScope.CALL),
+                null, null), meterRegistry);
+        ObjectProvider<Bulkheads> provider = mock(ObjectProvider.class);
+        when(provider.getObject()).thenReturn(bulkheads);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        dataSource = (DataSource) new PerConnectionBulkhead(provider).postProcessAfterInitialization(target, "dataSource");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void callScope_HoldsDatabasePermitUntilConnectionCloses() throws SQLException {
+        // Arrange
+        inRequest(Bulkheads.TrafficClass.UPLOAD);
+
+        // Act
+        Connection first = dataSource.getConnection();
+
+        // Assert
+        assertThat(activeUploadDatabasePermits()).isEqualTo(1);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(BulkheadFullException.class);
+        first.close();
+        assertThat(activeUploadDatabasePermits()).isZero();
+        dataSource.getConnection().close();
+        assertThat(activeUploadDatabasePermits()).isZero();
+    }
+
+    @Test
+    void getConnection_WhenPoolFails_ReleasesPermit() throws SQLException {
+        // Arrange
+        inRequest(Bulkheads.TrafficClass.UPLOAD);
+        when(target.getConnection()).thenThrow(new SQLException("pool timeout"));
+
+        // Act & Assert
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLException.class);
+        assertThat(activeUploadDatabasePermits()).isZero();
+    }
+
+    @Test
+    void requestScopeAndUnadmittedCheckouts_PassThrough() throws SQLException {
+        // Arrange
+        inRequest(Bulkheads.TrafficClass.SEARCH);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        // Act & Assert
+        assertThat(dataSource.getConnection()).isSameAs(connection);
+        RequestContextHolder.resetRequestAttributes();
+        assertThat(dataSource.getConnection()).isSameAs(connection);
+        verify(target, times(2)).getConnection();
+    }
+
+    private double activeUploadDatabasePermits() {
+        return meterRegistry.get("springfm.bulkhead.active").tags("class", "upload", "resource", "database")
+                .gauge().value();
+    }
+
+    private static void inRequest(Bulkheads.TrafficClass trafficClass) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(BulkheadFilter.TRAFFIC_CLASS_ATTRIBUTE, trafficClass);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -0,0 +1,199 @@
+package com.phrontend.springfm.ratelimit;
+
+import com.phrontend.springfm.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RateLimitFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RateLimiter rateLimiter;
+    private RateLimitFilter filter;
+    private FilterChain filterChain;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitProperties properties = new RateLimitProperties(true, 1_000, Duration.ofMinutes(10),
+                new RateLimitProperties.Budget(2, 0.001),
+                new RateLimitProperties.Budget(1, 0.001),
+                new RateLimitProperties.Budget(1_000, 0.001),
+                new RateLimitProperties.Budget(1, 0.001));
+        rateLimiter = new RateLimiter(properties, meterRegistry);
+        filter = new RateLimitFilter(rateLimiter, properties);
+        filterChain = mock(FilterChain.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void search_OverBudget_Returns429WithRetryAfter() throws Exception {
+        // Act
+        MockHttpServletResponse first = run(request("GET", "/api/search", "10.0.0.1"));
+        MockHttpServletResponse second = run(request("GET", "/api/search", "10.0.0.1"));
+        MockHttpServletResponse third = run(request("GET", "/api/search", "10.0.0.1"));
+
+        // Assert
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(200);
+        assertThat(third.getStatus()).isEqualTo(429);
+        assertThat(third.getHeader(HttpHeaders.RETRY_AFTER)).isNotBlank();
+        assertThat(meterRegistry.get("springfm.ratelimit.rejected").tag("endpoint", "search").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void budgets_AreSeparatePerEndpointAndClient() throws Exception {
+        // Act
+        run(request("GET", "/api/search/suggest", "10.0.0.1"));
+        MockHttpServletResponse otherEndpoint = run(request("GET", "/api/search", "10.0.0.1"));
+        MockHttpServletResponse otherClient = run(request("GET", "/api/search/suggest", "10.0.0.2"));
+        MockHttpServletResponse sameAgain = run(request("GET", "/api/search/suggest", "10.0.0.1"));
+
+        // Assert
+        assertThat(otherEndpoint.getStatus()).isEqualTo(200);
+        assertThat(otherClient.getStatus()).isEqualTo(200);
+        assertThat(sameAgain.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void authenticatedClients_AreLimitedPerUserRatherThanAddress() throws Exception {
+        // Arrange
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("42", null, List.of()));
+
+        // Act
+        MockHttpServletResponse first = run(request("POST", "/api/files/upload", "10.0.0.1"));
+        MockHttpServletResponse fromOtherAddress = run(request("POST", "/api/files/upload", "10.0.0.2"));
+
+        // Assert
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(fromOtherAddress.getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void download_IsChargedResponseBytes() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setContentLengthLong(5_000);
+            response.getOutputStream().write(new byte[5_000]);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act
+        MockHttpServletResponse first = run(request("GET", "/api/files/abc/download", "10.0.0.1"));
+        MockHttpServletResponse second = run(request("GET", "/api/files/abc/download", "10.0.0.1"));
+
+        // Assert
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(second.getStatus()).isEqualTo(429);
+        assertThat(rateLimiter.bucket(RateLimiter.Endpoint.DOWNLOAD, "ip:10.0.0.1").available()).isNegative();
+    }
+
+    @Test
+    void download_IsChargedBeforeTheBodySoParallelDownloadsAreRefused() throws Exception {
+        // Arrange
+        MockHttpServletResponse[] parallel = new MockHttpServletResponse[1];
+        FilterChain parallelChain = mock(FilterChain.class);
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setContentLengthLong(5_000);
+            // A second download from the same client starts while this body is still being written
+            parallel[0] = new MockHttpServletResponse();
+            filter.doFilter(request("GET", "/api/files/def/download", "10.0.0.1"), parallel[0], parallelChain);
+            response.getOutputStream().write(new byte[5_000]);
+            return null;
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act
+        MockHttpServletResponse first = run(request("GET", "/api/files/abc/download", "10.0.0.1"));
+
+        // Assert
+        assertThat(first.getStatus()).isEqualTo(200);
+        assertThat(parallel[0].getStatus()).isEqualTo(429);
+        verify(parallelChain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void download_FailingMidway_RefundsTheUnsentBytes() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            HttpServletResponse response = invocation.getArgument(1);
+            response.setContentLengthLong(5_000);
+            response.getOutputStream().write(new byte[1_000]);
+            throw new IOException("Connection reset by peer");
+        }).when(filterChain).doFilter(any(), any());
+
+        // Act
+        assertThatThrownBy(() -> run(request("GET", "/api/files/abc/download", "10.0.0.1")))
+                .isInstanceOf(IOException.class);
+
+        // Assert
+        assertThat(rateLimiter.bucket(RateLimiter.Endpoint.DOWNLOAD, "ip:10.0.0.1").available()).isNotNegative();
+        doAnswer(invocation -> null).when(filterChain).doFilter(any(), any());
+        assertThat(run(request("GET", "/api/files/abc/download", "10.0.0.1")).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void unlimitedPaths_AreNotFiltered() throws Exception {
+        // Arrange
+        MockHttpServletRequest request = request("GET", "/api/auth/me", "10.0.0.1");
+
+        // Act
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+
+        // Assert
+        assertThat(RateLimitFilter.endpoint(request)).isNull();
+        assertThat(rateLimiter.bucketCount()).isZero();
+        verify(filterChain).doFilter(any(), any());
+    }
+
+    @Test
+    void rejectedRequests_DoNotReachTheChain() throws Exception {
+        // Arrange
+        run(request("GET", "/api/search/suggest", "10.0.0.9"));
+        FilterChain rejectedChain = mock(FilterChain.class);
+
+        // Act
+        filter.doFilter(request("GET", "/api/search/suggest", "10.0.0.9"), new MockHttpServletResponse(), rejectedChain);
+
+        // Assert
+        verify(rejectedChain, never()).doFilter(any(), any());
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, filterChain);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String remoteAddress) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(remoteAddress);
+        return request;
+    }
+}
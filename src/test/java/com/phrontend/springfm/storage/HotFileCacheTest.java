@@ -0,0 +1,112 @@
+package com.phrontend.springfm.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HotFileCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private HotFileCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new HotFileCache(1000, 400, meterRegistry);
+    }
+
+    @Test
+    void get_AfterPut_ReturnsContentWithoutCopyingIntoCaller() {
+        // Arrange
+        cache.put("sha-a", new byte[]{1, 2, 3});
+
+        // Act
+        ByteBuffer first = cache.get("sha-a");
+        first.get();
+        ByteBuffer second = cache.get("sha-a");
+
+        // Assert
+        assertThat(first.isDirect()).isTrue();
+        assertThat(first.isReadOnly()).isTrue();
+        assertThat(second.remaining()).isEqualTo(3);
+    }
+
+    @Test
+    void get_WithUnknownKey_ReturnsNullAndCountsMiss() {
+        // Act
+        ByteBuffer result = cache.get("missing");
+
+        // Assert
+        assertThat(result).isNull();
+        assertThat(meterRegistry.get("springfm.hotcache.requests").tag("result", "miss").functionCounter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void accepts_RejectsFilesAboveEntryLimit() {
+        // Act & Assert
+        assertThat(cache.accepts(400)).isTrue();
+        assertThat(cache.accepts(401)).isFalse();
+        assertThat(cache.accepts(0)).isFalse();
+    }
+
+    @Test
+    void put_WhenFull_KeepsFrequentEntryOverOneHitWonder() {
+        // Arrange
+        cache.put("popular", new byte[400]);
+        cache.put("regular", new byte[400]);
+        for (int i = 0; i < 5; i++) {
+            cache.get("popular");
+            cache.get("regular");
+        }
+
+        // Act
+        cache.get("one-hit");
+        cache.put("one-hit", new byte[400]);
+
+        // Assert
+        assertThat(cache.get("popular")).isNotNull();
+        assertThat(cache.get("regular")).isNotNull();
+        assertThat(cache.get("one-hit")).isNull();
+    }
+
+    @Test
+    void put_WhenFull_EvictsColdEntryForHotterCandidate() {
+        // Arrange
+        cache.put("cold", new byte[400]);
+        cache.put("warm", new byte[400]);
+        for (int i = 0; i < 5; i++) {
+            cache.get("warm");
+            cache.get("trending");
+        }
+
+        // Act
+        assertThat(cache.wouldAdmit("trending", 400)).isTrue();
+        cache.put("trending", new byte[400]);
+
+        // Assert
+        assertThat(cache.get("trending")).isNotNull();
+        assertThat(cache.get("cold")).isNull();
+        assertThat(cache.get("warm")).isNotNull();
+    }
+
+    @Test
+    void hitRatio_ReflectsHitsAndMisses() {
+        // Arrange
+        cache.put("sha-a", new byte[10]);
+
+        // Act
+        cache.get("sha-a");
+        cache.get("sha-a");
+        cache.get("sha-a");
+        cache.get("sha-b");
+
+        // Assert
+        assertThat(cache.hitRatio()).isEqualTo(0.75);
+        assertThat(meterRegistry.get("springfm.hotcache.served").functionCounter().count()).isEqualTo(30.0);
+    }
+}
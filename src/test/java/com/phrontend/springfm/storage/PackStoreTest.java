@@ -0,0 +1,139 @@
+package com.phrontend.springfm.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PackStoreTest {
+
+    private static final long SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path tempDir;
+
+    private PackStore packStore;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        packStore = new PackStore(tempDir, SEGMENT_SIZE);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        packStore.close();
+    }
+
+    @Test
+    void put_ThenRead_ReturnsSameBytes() throws IOException {
+        // Act
+        String storagePath = packStore.put(bytes("hello pack"));
+
+        // Assert
+        assertThat(storagePath).startsWith(PackStore.PATH_PREFIX);
+        assertThat(PackStore.isPackPath(storagePath)).isTrue();
+        assertThat(packStore.read(storagePath)).isEqualTo(bytes("hello pack"));
+        assertThat(packStore.exists(storagePath)).isTrue();
+    }
+
+    @Test
+    void put_ManyBlobs_RollsOverToNewSegments() throws IOException {
+        // Act
+        for (int i = 0; i < 50; i++) {
+            packStore.put(new byte[100]);
+        }
+
+        // Assert
+        assertThat(segmentFiles()).hasSizeGreaterThan(1);
+        assertThat(packStore.blobCount()).isEqualTo(50);
+    }
+
+    @Test
+    void delete_RemovesBlob() throws IOException {
+        // Arrange
+        String storagePath = packStore.put(bytes("to be deleted"));
+
+        // Act
+        packStore.delete(storagePath);
+
+        // Assert
+        assertThat(packStore.exists(storagePath)).isFalse();
+        assertThatThrownBy(() -> packStore.read(storagePath))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File not found");
+    }
+
+    @Test
+    void read_WithMalformedPath_ThrowsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> packStore.read("pack/not-a-uuid"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid storage path");
+    }
+
+    @Test
+    void reopen_RebuildsIndexAndHonoursTombstones() throws IOException {
+        // Arrange
+        String kept = packStore.put(bytes("kept"));
+        String deleted = packStore.put(bytes("deleted"));
+        packStore.delete(deleted);
+        packStore.close();
+
+        // Act
+        packStore = new PackStore(tempDir, SEGMENT_SIZE);
+
+        // Assert
+        assertThat(packStore.read(kept)).isEqualTo(bytes("kept"));
+        assertThat(packStore.exists(deleted)).isFalse();
+    }
+
+    @Test
+    void compact_ReclaimsMostlyDeadSegmentsAndKeepsLiveBlobs() throws IOException {
+        // Arrange
+        List<String> paths = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            paths.add(packStore.put(bytes("blob-" + i + "-" + "x".repeat(80))));
+        }
+        for (int i = 0; i < 30; i++) {
+            if (i % 5 != 0) {
+                packStore.delete(paths.get(i));
+            }
+        }
+        int segmentsBefore = segmentFiles().size();
+
+        // Act
+        int reclaimed = packStore.compact(0.5);
+
+        // Assert
+        assertThat(reclaimed).isPositive();
+        assertThat(segmentFiles().size()).isLessThan(segmentsBefore);
+        for (int i = 0; i < 30; i += 5) {
+            assertThat(packStore.read(paths.get(i))).isEqualTo(bytes("blob-" + i + "-" + "x".repeat(80)));
+        }
+
+        packStore.close();
+        packStore = new PackStore(tempDir, SEGMENT_SIZE);
+        assertThat(packStore.blobCount()).isEqualTo(6);
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".pack")).toList();
+        }
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
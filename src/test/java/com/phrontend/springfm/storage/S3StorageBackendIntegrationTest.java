@@ -0,0 +1,112 @@
+package com.phrontend.springfm.storage;
+
+import com.phrontend.springfm.config.StorageProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs {@link S3StorageBackend} against a real S3-compatible server. Opt-in, e.g. with a local MinIO:
+ * <pre>
+ * docker run -p 9000:9000 minio/minio server /data
+ * ./gradlew test --tests '*S3StorageBackendIntegrationTest' -Ds3test.endpoint=http://localhost:9000
+ * </pre>
+ * Credentials default to MinIO's ({@code minioadmin}); override with {@code -Ds3test.access-key} and
+ * {@code -Ds3test.secret-key}. Each run uses a fresh bucket and removes it afterwards.
+ */
+@EnabledIfSystemProperty(named = "s3test.endpoint", matches = ".+")
+class S3StorageBackendIntegrationTest {
+
+    private static final String REGION = "us-east-1";
+    private static final String PREFIX = "blobs/";
+
+    private final String endpoint = System.getProperty("s3test.endpoint");
+    private final String accessKey = System.getProperty("s3test.access-key", "minioadmin");
+    private final String secretKey = System.getProperty("s3test.secret-key", "minioadmin");
+    private final String bucket = "springfm-test-" + UUID.randomUUID().toString().substring(0, 8);
+
+    private S3Client admin;
+    private S3StorageBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        admin = S3Client.builder()
+                .endpointOverride(URI.create(endpoint))
+                .region(Region.of(REGION))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey)))
+                .forcePathStyle(true)
+                .build();
+        admin.createBucket(request -> request.bucket(bucket));
+        backend = S3StorageBackend.create(
+                new StorageProperties.S3(endpoint, REGION, bucket, PREFIX, accessKey, secretKey, true));
+    }
+
+    @AfterEach
+    void tearDown() {
+        backend.close();
+        for (S3Object object : admin.listObjectsV2Paginator(request -> request.bucket(bucket)).contents()) {
+            admin.deleteObject(request -> request.bucket(bucket).key(object.key()));
+        }
+        admin.deleteBucket(request -> request.bucket(bucket));
+        admin.close();
+    }
+
+    @Test
+    void put_ThenGet_ReturnsContentUnderPrefixedKey() throws IOException {
+        // Act
+        backend.put("ab/cd/file.txt", content("hello s3"), 8);
+
+        // Assert
+        try (InputStream in = backend.get("ab/cd/file.txt")) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("hello s3");
+        }
+        assertThat(admin.headObject(request -> request.bucket(bucket).key(PREFIX + "ab/cd/file.txt"))
+                .contentLength()).isEqualTo(8);
+        assertThat(backend.exists("ab/cd/file.txt")).isTrue();
+        assertThat(backend.size("ab/cd/file.txt")).isEqualTo(8);
+    }
+
+    @Test
+    void missingObject_IsMappedToFileNotFound() {
+        // Act & Assert
+        assertThatThrownBy(() -> backend.get("ab/cd/missing.txt"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File not found");
+        assertThatThrownBy(() -> backend.size("ab/cd/missing.txt"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File not found");
+        assertThat(backend.exists("ab/cd/missing.txt")).isFalse();
+    }
+
+    @Test
+    void delete_RemovesObject() {
+        // Arrange
+        backend.put("ab/cd/file.txt", content("bye"), 3);
+
+        // Act
+        backend.delete("ab/cd/file.txt");
+
+        // Assert
+        assertThat(backend.exists("ab/cd/file.txt")).isFalse();
+    }
+
+    private static InputStream content(String value) {
+        return new ByteArrayInputStream(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
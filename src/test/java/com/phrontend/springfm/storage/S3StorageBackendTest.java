@@ -0,0 +1,91 @@
+package com.phrontend.springfm.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class S3StorageBackendTest {
+
+    @Mock
+    private S3Client s3Client;
+
+    private S3StorageBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        backend = new S3StorageBackend(s3Client, "springfm", "blobs/");
+    }
+
+    @Test
+    void put_UsesBucketAndPrefixedKey() {
+        // Act
+        backend.put("ab/cd/file.txt", new ByteArrayInputStream(new byte[5]), 5);
+
+        // Assert
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(captor.capture(), any(RequestBody.class));
+        assertThat(captor.getValue().bucket()).isEqualTo("springfm");
+        assertThat(captor.getValue().key()).isEqualTo("blobs/ab/cd/file.txt");
+        assertThat(captor.getValue().contentLength()).isEqualTo(5);
+    }
+
+    @Test
+    void get_WithMissingObject_ThrowsFileNotFound() {
+        // Arrange
+        when(s3Client.getObject(any(GetObjectRequest.class)))
+                .thenThrow(NoSuchKeyException.builder().statusCode(404).build());
+
+        // Act & Assert
+        assertThatThrownBy(() -> backend.get("ab/cd/missing.txt"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File not found");
+    }
+
+    @Test
+    void exists_WithHeadNotFound_ReturnsFalse() {
+        // Arrange
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenThrow(S3Exception.builder().statusCode(404).build());
+
+        // Act & Assert
+        assertThat(backend.exists("ab/cd/missing.txt")).isFalse();
+    }
+
+    @Test
+    void size_ReturnsContentLengthFromHead() {
+        // Arrange
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+                .thenReturn(HeadObjectResponse.builder().contentLength(42L).build());
+
+        // Act & Assert
+        assertThat(backend.size("ab/cd/file.txt")).isEqualTo(42);
+    }
+
+    @Test
+    void put_WithTraversalKey_ThrowsException() {
+        // Act & Assert
+        assertThatThrownBy(() -> backend.put("../escape.txt", new ByteArrayInputStream(new byte[1]), 1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid storage path");
+    }
+}
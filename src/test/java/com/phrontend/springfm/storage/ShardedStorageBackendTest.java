@@ -0,0 +1,123 @@
+package com.phrontend.springfm.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShardedStorageBackendTest {
+
+    @TempDir
+    Path tempDir;
+
+    private LocalStorageBackend disk1;
+    private LocalStorageBackend disk2;
+    private LocalStorageBackend disk3;
+    private ShardedStorageBackend backend;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        disk1 = new LocalStorageBackend(tempDir.resolve("disk1"));
+        disk2 = new LocalStorageBackend(tempDir.resolve("disk2"));
+        disk3 = new LocalStorageBackend(tempDir.resolve("disk3"));
+        backend = new ShardedStorageBackend(List.of(disk1, disk2, disk3));
+    }
+
+    @Test
+    void put_ThenGet_RoundTripsThroughPrimaryShard() throws IOException {
+        // Arrange
+        String key = "ab/cd/" + UUID.randomUUID() + "-report.pdf";
+
+        // Act
+        put(backend, key, "sharded content");
+
+        // Assert
+        assertThat(Files.exists(backend.primary(key).root().resolve(key))).isTrue();
+        assertThat(read(backend.get(key))).isEqualTo("sharded content");
+        assertThat(backend.exists(key)).isTrue();
+        assertThat(backend.size(key)).isEqualTo(15);
+    }
+
+    @Test
+    void put_ManyKeys_SpreadsAcrossAllShards() {
+        // Act
+        Map<LocalStorageBackend, Integer> counts = new HashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            counts.merge(backend.primary(UUID.randomUUID() + "-file.txt"), 1, Integer::sum);
+        }
+
+        // Assert
+        assertThat(counts).containsOnlyKeys(disk1, disk2, disk3);
+        assertThat(counts.values()).allSatisfy(count -> assertThat(count).isBetween(600, 1400));
+    }
+
+    @Test
+    void addingShard_KeepsMostKeysOnTheirShard() throws IOException {
+        // Arrange
+        ShardedStorageBackend grown = new ShardedStorageBackend(
+                List.of(disk1, disk2, disk3, new LocalStorageBackend(tempDir.resolve("disk4"))));
+
+        // Act
+        int moved = 0;
+        for (int i = 0; i < 3000; i++) {
+            String key = UUID.randomUUID() + "-file.txt";
+            if (backend.primary(key) != grown.primary(key)) {
+                moved++;
+            }
+        }
+
+        // Assert
+        assertThat(moved).isLessThan(1200);
+    }
+
+    @Test
+    void get_WithBlobOnNonPrimaryShard_FallsBackToOtherShards() throws IOException {
+        // Arrange
+        String key = "ab/cd/" + UUID.randomUUID() + "-old.txt";
+        LocalStorageBackend other = backend.primary(key) == disk1 ? disk2 : disk1;
+        put(other, key, "written before resharding");
+
+        // Act & Assert
+        assertThat(read(backend.get(key))).isEqualTo("written before resharding");
+    }
+
+    @Test
+    void delete_RemovesBlob() throws IOException {
+        // Arrange
+        String key = "ab/cd/" + UUID.randomUUID() + "-gone.txt";
+        put(backend, key, "bye");
+
+        // Act
+        backend.delete(key);
+
+        // Assert
+        assertThat(backend.exists(key)).isFalse();
+        assertThatThrownBy(() -> backend.get(key))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("File not found");
+    }
+
+    private static void put(StorageBackend target, String key, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        target.put(key, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private static String read(InputStream in) throws IOException {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.phrontend.springfm.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StorageTreeWalkerTest {
+
+    @TempDir
+    Path root;
+
+    @Test
+    void walk_ListsBlobsInFanOutDirectoriesOnly() throws IOException {
+        // Arrange
+        blob("ab/cd/first");
+        blob("ab/ef/second");
+        blob("gh/ij/third");
+        blob("packs/segment-0");
+
+        // Act
+        List<String> keys = walk(root, blob -> { });
+
+        // Assert
+        assertThat(keys).containsExactlyInAnyOrder("ab/cd/first", "ab/ef/second", "gh/ij/third");
+    }
+
+    @Test
+    void walk_WhenFilesAndDirectoriesVanishMidWalk_SkipsThem() throws IOException {
+        // Arrange
+        blob("ab/cd/first");
+        blob("ab/cd/second");
+        blob("ab/ef/third");
+        blob("gh/ij/fourth");
+
+        // Act: the first blob seen deletes everything else, listed or not
+        List<String> keys = walk(root, blob -> deleteAllBut(root.resolve(blob.key())));
+
+        // Assert
+        assertThat(keys).hasSize(1);
+    }
+
+    @Test
+    void walk_WhenRootIsMissing_Fails() {
+        // Act & Assert
+        assertThatThrownBy(() -> walk(root.resolve("unmounted"), blob -> { }))
+                .isInstanceOf(UncheckedIOException.class);
+    }
+
+    private static List<String> walk(Path walkRoot, Consumer<StorageTreeWalker.Blob> onBlob) {
+        Queue<String> keys = new ConcurrentLinkedQueue<>();
+        try (ForkJoinPool pool = new ForkJoinPool(1)) {
+            new StorageTreeWalker(pool, () -> { }).walk(walkRoot, blob -> {
+                keys.add(blob.key());
+                onBlob.accept(blob);
+            });
+        }
+        return List.copyOf(keys);
+    }
+
+    private void blob(String key) throws IOException {
+        Path path = root.resolve(key);
+        Files.createDirectories(path.getParent());
+        Files.write(path, new byte[8]);
+    }
+
+    private void deleteAllBut(Path keep) {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                if (!keep.startsWith(path)) {
+                    Files.delete(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
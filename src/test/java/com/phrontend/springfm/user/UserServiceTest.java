@@ -1,18 +1,24 @@
 package com.phrontend.springfm.user;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -21,6 +27,9 @@ class UserServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private UserService userService;
 
@@ -135,4 +144,26 @@ class UserServiceTest {
                 .isInstanceOf(UsernameNotFoundException.class)
                 .hasMessage("User not found");
     }
+
+    @Test
+    void displayNames_LooksUpNumericIdsInOneQuery() {
+        // Arrange
+        when(userRepository.findAllById(List.of(1L))).thenReturn(List.of(testUser));
+
+        // Act
+        Map<String, String> displayNames = userService.displayNames(List.of("1", "1", "not-a-number"));
+
+        // Assert
+        assertThat(displayNames).containsExactly(Map.entry("1", "Test User"));
+    }
+
+    @Test
+    void displayNames_WithoutNumericIds_SkipsQuery() {
+        // Act
+        Map<String, String> displayNames = userService.displayNames(List.of("abc"));
+
+        // Assert
+        assertThat(displayNames).isEmpty();
+        verifyNoInteractions(userRepository);
+    }
 }
@@ -0,0 +1,16 @@
+package com.phrontend.springfm.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashingTest {
+
+    @Test
+    void hash64_IsStableAcrossReleases() {
+        // Act & Assert: ShardedStorageBackend places blobs by these values
+        assertThat(Hashing.hash64("")).isEqualTo(0xefd01f60ba992926L);
+        assertThat(Hashing.hash64("a")).isEqualTo(0x82a2a958a9bece5bL);
+        assertThat(Hashing.hash64("files/ab/cd")).isEqualTo(0xde7198373582429fL);
+    }
+}
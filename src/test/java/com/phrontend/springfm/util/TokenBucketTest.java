@@ -0,0 +1,119 @@
+package com.phrontend.springfm.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void tryAcquire_AllowsBurstUpToCapacityThenRefills() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(3, 1, now::get);
+
+        // Act & Assert
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isEqualTo(TimeUnit.SECONDS.toNanos(1));
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isPositive();
+    }
+
+    @Test
+    void charge_GoesIntoDebtAndBlocksUntilRepaid() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(100, 100, now::get);
+
+        // Act
+        bucket.charge(300);
+
+        // Assert
+        assertThat(bucket.available()).isEqualTo(-200);
+        assertThat(bucket.tryAcquire(0)).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertThat(bucket.tryAcquire(0)).isZero();
+    }
+
+    @Test
+    void refund_ReturnsChargedTokensButNeverMoreThanCapacity() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(100, 100, now::get);
+        bucket.charge(300);
+
+        // Act
+        bucket.refund(250);
+        long afterPartialRefund = bucket.available();
+        bucket.refund(1_000);
+
+        // Assert
+        assertThat(afterPartialRefund).isEqualTo(50);
+        assertThat(bucket.available()).isEqualTo(100);
+    }
+
+    @Test
+    void available_NeverExceedsCapacityAfterLongIdle() {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(10, 5, now::get);
+
+        // Act
+        now.addAndGet(TimeUnit.HOURS.toNanos(1));
+
+        // Assert
+        assertThat(bucket.available()).isEqualTo(10);
+    }
+
+    @Test
+    void tryAcquire_UnderContention_NeverAdmitsMoreThanCapacity() throws InterruptedException {
+        // Arrange
+        TokenBucket bucket = new TokenBucket(1_000, 0.001, now::get);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        int threads = 8;
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int t = 0; t < threads; t++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                        for (int i = 0; i < 500; i++) {
+                            if (bucket.tryAcquire(1) == 0) {
+                                admitted.incrementAndGet();
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            start.countDown();
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        }
+
+        // Assert
+        assertThat(admitted).hasValue(1_000);
+    }
+
+    @Test
+    void constructor_WithNonPositiveCapacityOrRate_RejectsArguments() {
+        // Act & Assert
+        assertThatThrownBy(() -> new TokenBucket(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.phrontend.springfm.diagnostics;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes the {@code springfm.*} events of a flight recording per phase: count, total and percentile
+ * durations, bytes and rows. Phases are the event type plus its phase, operation, result or mode field,
+ * e.g. {@code UploadPhase/store} or {@code SearchQuery/FULLTEXT}, sorted by total time.
+ *
+ * <p>Record with {@code -XX:StartFlightRecording=settings=profile,filename=springfm.jfr} (the events
+ * are enabled by default) and summarize with {@code ./gradlew jfrSummary -Pjfr=springfm.jfr}.
+ */
+public final class JfrPhaseSummary {
+
+    static final String EVENT_PREFIX = "springfm.";
+
+    private static final List<String> PHASE_FIELDS = List.of("phase", "operation", "result", "mode");
+
+    record PhaseStats(String phase, long count, Duration total, Duration p50, Duration p99, Duration max,
+                      long bytes, long rows) {
+    }
+
+    private JfrPhaseSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrPhaseSummary <recording.jfr>");
+            System.exit(2);
+        }
+        print(summarize(Path.of(args[0])), System.out);
+    }
+
+    static List<PhaseStats> summarize(Path recording) throws IOException {
+        Map<String, Accumulator> phases = new HashMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                if (event.getEventType().getName().startsWith(EVENT_PREFIX)) {
+                    phases.computeIfAbsent(phase(event), key -> new Accumulator()).add(event);
+                }
+            }
+        }
+        return phases.entrySet().stream()
+                .map(entry -> entry.getValue().toStats(entry.getKey()))
+                .sorted(Comparator.comparing(PhaseStats::total).reversed())
+                .toList();
+    }
+
+    static void print(List<PhaseStats> phases, PrintStream out) {
+        out.printf("%-32s %9s %12s %10s %10s %10s %12s %10s%n",
+                "phase", "count", "total ms", "p50 ms", "p99 ms", "max ms", "bytes", "rows");
+        for (PhaseStats stats : phases) {
+            out.printf("%-32s %9d %12.1f %10.3f %10.3f %10.3f %12d %10d%n",
+                    stats.phase(), stats.count(), millis(stats.total()), millis(stats.p50()), millis(stats.p99()),
+                    millis(stats.max()), stats.bytes(), stats.rows());
+        }
+    }
+
+    private static String phase(RecordedEvent event) {
+        String type = event.getEventType().getName().substring(EVENT_PREFIX.length());
+        for (String field : PHASE_FIELDS) {
+            if (event.hasField(field) && event.getValue(field) != null) {
+                return type + "/" + event.getValue(field);
+            }
+        }
+        return type;
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000.0;
+    }
+
+    private static final class Accumulator {
+
+        private long[] durations = new long[64];
+        private int count;
+        private long bytes;
+        private long rows;
+
+        void add(RecordedEvent event) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = event.getDuration().toNanos();
+            if (event.hasField("bytes")) {
+                bytes += event.getLong("bytes");
+            }
+            if (event.hasField("rowsReturned")) {
+                rows += event.getLong("rowsReturned");
+            }
+        }
+
+        PhaseStats toStats(String phase) {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            return new PhaseStats(phase, count, Duration.ofNanos(Arrays.stream(sorted).sum()),
+                    Duration.ofNanos(percentile(sorted, 0.50)), Duration.ofNanos(percentile(sorted, 0.99)),
+                    Duration.ofNanos(sorted[count - 1]), bytes, rows);
+        }
+
+        private static long percentile(long[] sorted, double quantile) {
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)];
+        }
+    }
+}